@@ -0,0 +1,104 @@
+package apiPojo;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * JSON mapping for the apiPojo types. One configured ObjectMapper, with an
+ * ObjectReader/ObjectWriter cached per type, so each call skips the generic
+ * mapper lookup Rest Assured's {@code .as()} goes through. Large array
+ * responses can be checked element by element with {@link #forEachElement}
+ * without building the whole document in memory.
+ */
+public class ApiJson {
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final ClassValue<ObjectReader> readers = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return mapper.readerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectWriter> writers = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return mapper.writerFor(type);
+        }
+    };
+
+    public static <T> T read(byte[] json, Class<T> type) {
+        try {
+            return readers.get(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + type.getSimpleName(), e);
+        }
+    }
+
+    public static <T> T read(InputStream json, Class<T> type) {
+        try {
+            return readers.get(type).readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + type.getSimpleName(), e);
+        }
+    }
+
+    public static byte[] write(Object value) {
+        try {
+            return writers.get(value.getClass()).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Stream the array under {@code arrayField} (or the root array when null),
+     * binding and handing over one element at a time. Closes the stream.
+     *
+     * @return number of elements visited
+     */
+    public static <T> long forEachElement(InputStream json, String arrayField, Class<T> type, Consumer<? super T> action) {
+        ObjectReader reader = readers.get(type);
+        try (JsonParser parser = mapper.getFactory().createParser(json)) {
+            if (!seekArray(parser, arrayField)) {
+                throw new IllegalArgumentException("No array " + (arrayField == null ? "at root" : "'" + arrayField + "'"));
+            }
+            long count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                action.accept(reader.readValue(parser));
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stream " + type.getSimpleName() + " elements", e);
+        }
+    }
+
+    private static boolean seekArray(JsonParser parser, String arrayField) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (arrayField == null) {
+            return token == JsonToken.START_ARRAY;
+        }
+        while (token != null) {
+            if (token == JsonToken.FIELD_NAME && arrayField.equals(parser.currentName())) {
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    return true;
+                }
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return false;
+    }
+}
@@ -1,13 +1,28 @@
 package pages;
 
 import org.openqa.selenium.*;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.AdaptiveWait;
+import utils.AdaptiveWait.ConditionType;
 import utils.ConfigReader;
+import utils.ElementSnapshot;
+import utils.MutationObserverWait;
+import utils.StepMetrics;
+import utils.WaitMode;
+import utils.WaitUtils;
 
 import java.io.File;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Base page class that provides common functionality and explicit waits
@@ -16,205 +31,265 @@ import java.util.List;
 public abstract class BasePage {
     protected WebDriver driver;
     protected WebDriverWait wait;
+    // Shared adaptive wait behind the element waits below
+    private final AdaptiveWait adaptiveWait;
+    // Wait engine used by element waits on this page; defaults to "web.wait.mode"
+    protected WaitMode waitMode = WaitMode.configured();
     
     // Default wait timeout from config, fallback to 10 seconds
-    private static final int DEFAULT_WAIT_TIMEOUT = Integer.parseInt(
-        ConfigReader.get("web.wait.timeout", "10")
-    );
+    private static final int DEFAULT_WAIT_TIMEOUT = ConfigReader.getInt("web.wait.timeout", 10);
+
+    // Elements resolved by the safe* helpers, reused until they go stale or navigateTo loads another page
+    private static final boolean ELEMENT_CACHE_ENABLED = ConfigReader.getBoolean("web.element.cache.enabled", true);
+    private final Map<By, WebElement> elementCache = new HashMap<>();
+    private long elementCacheHits;
+    private long elementCacheMisses;
+
+    // Suite-wide element cache counters across all page objects
+    private static final LongAdder TOTAL_CACHE_HITS = new LongAdder();
+    private static final LongAdder TOTAL_CACHE_MISSES = new LongAdder();
+    private static final LongAdder TOTAL_STALE_EVICTIONS = new LongAdder();
     
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT_TIMEOUT));
+        this.wait = WaitUtils.getCustomWait(driver, DEFAULT_WAIT_TIMEOUT);
+        this.adaptiveWait = WaitUtils.getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
     }
     
     /**
      * Wait for element to be visible and return it
      */
     protected WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitUntil(MutationObserverWait.Condition.visibilityOf(locator),
+                ExpectedConditions.visibilityOfElementLocated(locator), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for element to be visible with custom timeout
      */
     protected WebElement waitForElementToBeVisible(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitForElementToBeVisible(locator, timeoutInSeconds, waitMode);
+    }
+
+    /**
+     * Wait for element to be visible with custom timeout and wait mode
+     */
+    protected WebElement waitForElementToBeVisible(By locator, int timeoutInSeconds, WaitMode mode) {
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.visibilityOf(locator),
+                ExpectedConditions.visibilityOfElementLocated(locator), customWait, timeoutInSeconds, mode);
     }
     
     /**
      * Wait for element to be clickable and return it
      */
     protected WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return waitUntil(MutationObserverWait.Condition.clickable(locator),
+                ExpectedConditions.elementToBeClickable(locator), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for element to be clickable with custom timeout
      */
     protected WebElement waitForElementToBeClickable(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.elementToBeClickable(locator));
+        return waitForElementToBeClickable(locator, timeoutInSeconds, waitMode);
+    }
+
+    /**
+     * Wait for element to be clickable with custom timeout and wait mode
+     */
+    protected WebElement waitForElementToBeClickable(By locator, int timeoutInSeconds, WaitMode mode) {
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.clickable(locator),
+                ExpectedConditions.elementToBeClickable(locator), customWait, timeoutInSeconds, mode);
     }
     
     /**
      * Wait for element to be present in DOM
      */
     protected WebElement waitForElementToBePresent(By locator) {
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return waitUntil(MutationObserverWait.Condition.presenceOf(locator),
+                ExpectedConditions.presenceOfElementLocated(locator), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for element to be present with custom timeout
      */
     protected WebElement waitForElementToBePresent(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return waitForElementToBePresent(locator, timeoutInSeconds, waitMode);
+    }
+
+    /**
+     * Wait for element to be present with custom timeout and wait mode
+     */
+    protected WebElement waitForElementToBePresent(By locator, int timeoutInSeconds, WaitMode mode) {
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.presenceOf(locator),
+                ExpectedConditions.presenceOfElementLocated(locator), customWait, timeoutInSeconds, mode);
     }
     
     /**
      * Wait for element to disappear (not visible)
      */
     protected boolean waitForElementToDisappear(By locator) {
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return waitUntil(MutationObserverWait.Condition.invisibilityOf(locator),
+                ExpectedConditions.invisibilityOfElementLocated(locator), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for element to disappear with custom timeout
      */
     protected boolean waitForElementToDisappear(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return waitForElementToDisappear(locator, timeoutInSeconds, waitMode);
+    }
+
+    /**
+     * Wait for element to disappear with custom timeout and wait mode
+     */
+    protected boolean waitForElementToDisappear(By locator, int timeoutInSeconds, WaitMode mode) {
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.invisibilityOf(locator),
+                ExpectedConditions.invisibilityOfElementLocated(locator), customWait, timeoutInSeconds, mode);
     }
     
     /**
      * Wait for text to be present in element
      */
     protected boolean waitForTextToBePresentInElement(By locator, String text) {
-        return wait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        return waitUntil(MutationObserverWait.Condition.textPresent(locator, text),
+                ExpectedConditions.textToBePresentInElementLocated(locator, text), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for text to be present in element with custom timeout
      */
     protected boolean waitForTextToBePresentInElement(By locator, String text, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.textPresent(locator, text),
+                ExpectedConditions.textToBePresentInElementLocated(locator, text), customWait, timeoutInSeconds, waitMode);
     }
     
     /**
      * Wait for URL to contain specific text
      */
     protected boolean waitForUrlToContain(String urlFragment) {
-        return wait.until(ExpectedConditions.urlContains(urlFragment));
+        return until(adaptiveWait, ConditionType.URL, ExpectedConditions.urlContains(urlFragment));
     }
     
     /**
      * Wait for URL to contain specific text with custom timeout
      */
     protected boolean waitForUrlToContain(String urlFragment, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.urlContains(urlFragment));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return until(customWait, ConditionType.URL, ExpectedConditions.urlContains(urlFragment));
     }
     
     /**
      * Wait for page title to contain specific text
      */
     protected boolean waitForTitleToContain(String titleFragment) {
-        return wait.until(ExpectedConditions.titleContains(titleFragment));
+        return until(adaptiveWait, ConditionType.TITLE, ExpectedConditions.titleContains(titleFragment));
     }
     
     /**
      * Wait for page title to contain specific text with custom timeout
      */
     protected boolean waitForTitleToContain(String titleFragment, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.titleContains(titleFragment));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return until(customWait, ConditionType.TITLE, ExpectedConditions.titleContains(titleFragment));
     }
     
     /**
      * Wait for alert to be present
      */
     protected Alert waitForAlert() {
-        return wait.until(ExpectedConditions.alertIsPresent());
+        return until(adaptiveWait, ConditionType.ALERT, ExpectedConditions.alertIsPresent());
     }
     
     /**
      * Wait for alert to be present with custom timeout
      */
     protected Alert waitForAlert(int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.alertIsPresent());
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return until(customWait, ConditionType.ALERT, ExpectedConditions.alertIsPresent());
     }
     
     /**
      * Wait for all elements matching locator to be visible
      */
     protected List<WebElement> waitForAllElementsToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+        return until(adaptiveWait, ConditionType.VISIBILITY, ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
     }
     
     /**
      * Wait for all elements matching locator to be visible with custom timeout
      */
     protected List<WebElement> waitForAllElementsToBeVisible(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return until(customWait, ConditionType.VISIBILITY, ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
     }
     
     /**
      * Wait for element to be selected (for checkboxes, radio buttons)
      */
     protected boolean waitForElementToBeSelected(By locator) {
-        return wait.until(ExpectedConditions.elementToBeSelected(locator));
+        return until(adaptiveWait, ConditionType.SELECTION, ExpectedConditions.elementToBeSelected(locator));
     }
     
     /**
      * Wait for element to be selected with custom timeout
      */
     protected boolean waitForElementToBeSelected(By locator, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.elementToBeSelected(locator));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return until(customWait, ConditionType.SELECTION, ExpectedConditions.elementToBeSelected(locator));
     }
     
     /**
      * Wait for element attribute to contain specific value
      */
     protected boolean waitForElementAttributeToContain(By locator, String attribute, String value) {
-        return wait.until(ExpectedConditions.attributeContains(locator, attribute, value));
+        return waitUntil(MutationObserverWait.Condition.attributeContains(locator, attribute, value),
+                ExpectedConditions.attributeContains(locator, attribute, value), adaptiveWait, DEFAULT_WAIT_TIMEOUT, waitMode);
     }
     
     /**
      * Wait for element attribute to contain specific value with custom timeout
      */
     protected boolean waitForElementAttributeToContain(By locator, String attribute, String value, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        return customWait.until(ExpectedConditions.attributeContains(locator, attribute, value));
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        return waitUntil(MutationObserverWait.Condition.attributeContains(locator, attribute, value),
+                ExpectedConditions.attributeContains(locator, attribute, value), customWait, timeoutInSeconds, waitMode);
     }
     
     /**
      * Safe click method that waits for element to be clickable before clicking
      */
     protected void safeClick(By locator) {
-        WebElement element = waitForElementToBeClickable(locator);
-        element.click();
+        step("safeClick", () -> withCachedElement(locator, true, () -> waitForElementToBeClickable(locator), element -> {
+            element.click();
+            return null;
+        }));
     }
     
     /**
      * Safe click method with custom timeout
      */
     protected void safeClick(By locator, int timeoutInSeconds) {
-        WebElement element = waitForElementToBeClickable(locator, timeoutInSeconds);
-        element.click();
+        step("safeClick", () -> withCachedElement(locator, true, () -> waitForElementToBeClickable(locator, timeoutInSeconds), element -> {
+            element.click();
+            return null;
+        }));
     }
     
     /**
      * Safe send keys method that waits for element to be visible before typing
      */
     protected void safeSendKeys(By locator, String text) {
-        WebElement element = waitForElementToBeVisible(locator);
-        element.clear();
-        element.sendKeys(text);
+        step("safeSendKeys", () -> withCachedElement(locator, false, () -> waitForElementToBeVisible(locator), element -> {
+            element.clear();
+            element.sendKeys(text);
+            return null;
+        }));
     }
 
     /**
@@ -226,6 +301,10 @@ public abstract class BasePage {
      * @param timeoutInSeconds Timeout in seconds to wait for the attribute (ignored if attributeName is null)
      */
     protected void uploadFileAndWaitForAttribute(By fileInputLocator, String relativeFilePath, String attributeName, int timeoutInSeconds) {
+        step("uploadFile", () -> uploadFile(fileInputLocator, relativeFilePath, attributeName, timeoutInSeconds));
+    }
+
+    private void uploadFile(By fileInputLocator, String relativeFilePath, String attributeName, int timeoutInSeconds) {
         String filePath = System.getProperty("user.dir") + "/" + relativeFilePath;
 
         File file = new File(filePath);
@@ -237,12 +316,12 @@ public abstract class BasePage {
         driver.findElement(fileInputLocator).sendKeys(file.getAbsolutePath());
 
         if (attributeName != null) {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            customWait.until(driver -> {
+            AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+            waitUntil(MutationObserverWait.Condition.attributePresent(fileInputLocator, attributeName), driver -> {
                 WebElement element = driver.findElement(fileInputLocator);
                 String attrValue = element.getAttribute(attributeName);
                 return attrValue != null;
-            });
+            }, customWait, timeoutInSeconds, waitMode);
         }
     }
     
@@ -250,25 +329,25 @@ public abstract class BasePage {
      * Safe send keys method with custom timeout
      */
     protected void safeSendKeys(By locator, String text, int timeoutInSeconds) {
-        WebElement element = waitForElementToBeVisible(locator, timeoutInSeconds);
-        element.clear();
-        element.sendKeys(text);
+        step("safeSendKeys", () -> withCachedElement(locator, false, () -> waitForElementToBeVisible(locator, timeoutInSeconds), element -> {
+            element.clear();
+            element.sendKeys(text);
+            return null;
+        }));
     }
     
     /**
      * Safe get text method that waits for element to be visible before getting text
      */
     protected String safeGetText(By locator) {
-        WebElement element = waitForElementToBeVisible(locator);
-        return element.getText();
+        return step("safeGetText", () -> withCachedElement(locator, false, () -> waitForElementToBeVisible(locator), WebElement::getText));
     }
     
     /**
      * Safe get text method with custom timeout
      */
     protected String safeGetText(By locator, int timeoutInSeconds) {
-        WebElement element = waitForElementToBeVisible(locator, timeoutInSeconds);
-        return element.getText();
+        return step("safeGetText", () -> withCachedElement(locator, false, () -> waitForElementToBeVisible(locator, timeoutInSeconds), WebElement::getText));
     }
     
     /**
@@ -295,11 +374,25 @@ public abstract class BasePage {
         }
     }
     
+    /**
+     * Read presence, displayed, enabled and text of several elements in one round-trip
+     */
+    protected ElementSnapshot snapshot(By... locators) {
+        return ElementSnapshot.capture(driver, Arrays.asList(locators));
+    }
+
+    /**
+     * Read the state of several elements plus the given attributes in one round-trip
+     */
+    protected ElementSnapshot snapshot(List<By> locators, String... attributes) {
+        return ElementSnapshot.capture(driver, locators, attributes);
+    }
+
     /**
      * Wait for page to load completely
      */
     protected void waitForPageToLoad() {
-        wait.until(webDriver -> 
+        until(adaptiveWait, ConditionType.PAGE_LOAD, webDriver ->
             ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete")
         );
     }
@@ -308,12 +401,48 @@ public abstract class BasePage {
      * Wait for page to load completely with custom timeout
      */
     protected void waitForPageToLoad(int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        customWait.until(webDriver -> 
+        AdaptiveWait customWait = WaitUtils.getAdaptiveWait(driver, timeoutInSeconds);
+        until(customWait, ConditionType.PAGE_LOAD, webDriver ->
             ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete")
         );
     }
     
+    /**
+     * Navigate to a URL and drop cached elements from the previous document. Page objects
+     * load their page through this (see their open() methods) so the element cache never
+     * outlives the document it was built from.
+     */
+    protected void navigateTo(String url) {
+        invalidateElementCache();
+        step("navigateTo", () -> driver.get(url));
+    }
+
+    /**
+     * Forget all cached element references on this page
+     */
+    protected void invalidateElementCache() {
+        elementCache.clear();
+    }
+
+    /**
+     * Fraction of safe* element lookups on this page served from the element cache
+     */
+    public double getElementCacheHitRate() {
+        long lookups = elementCacheHits + elementCacheMisses;
+        return lookups == 0 ? 0 : (double) elementCacheHits / lookups;
+    }
+
+    /**
+     * Suite-wide element cache hit/miss counters
+     */
+    public static String elementCacheSummary() {
+        long hits = TOTAL_CACHE_HITS.sum();
+        long misses = TOTAL_CACHE_MISSES.sum();
+        long lookups = hits + misses;
+        return String.format("Element cache: hits=%d, misses=%d, staleEvictions=%d, hitRate=%.1f%%",
+                hits, misses, TOTAL_STALE_EVICTIONS.sum(), lookups == 0 ? 0 : 100.0 * hits / lookups);
+    }
+
     /**
      * Get the current page title
      */
@@ -336,4 +465,67 @@ public abstract class BasePage {
         waitForTitleToContain(expectedText, timeoutInSeconds);
         return driver.getTitle();
     }
+
+    /**
+     * Run an element wait through the selected engine; MUTATION_OBSERVER falls back to
+     * the polling wait for locators it cannot express.
+     */
+    private <T> T waitUntil(MutationObserverWait.Condition condition, ExpectedCondition<T> pollingCondition,
+                            AdaptiveWait pollingWait, int timeoutInSeconds, WaitMode mode) {
+        return step(waitStepName(condition.getType()), () -> MutationObserverWait.until(driver, mode,
+                Duration.ofSeconds(timeoutInSeconds), condition, pollingWait, pollingCondition));
+    }
+
+    /**
+     * Polling wait for conditions the observer engine doesn't cover, timed as a step of this page.
+     */
+    private <T> T until(AdaptiveWait pollingWait, ConditionType type, Function<? super WebDriver, T> condition) {
+        return step(waitStepName(type), () -> pollingWait.until(type, condition));
+    }
+
+    /**
+     * Time an action as a step of this page (see {@link StepMetrics}).
+     */
+    private <T> T step(String name, Supplier<T> action) {
+        return StepMetrics.time(getClass().getSimpleName(), name, action);
+    }
+
+    private void step(String name, Runnable action) {
+        StepMetrics.time(getClass().getSimpleName(), name, action);
+    }
+
+    private static String waitStepName(ConditionType type) {
+        return "wait " + type.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Run an action on the cached element for this locator when it is still displayed
+     * (and enabled, if required); otherwise wait for a fresh one and cache it. A stale
+     * reference means the document changed, so the whole cache is dropped. A hit saves
+     * the wait's findElement polls but still pays the isDisplayed (and isEnabled) round-trips.
+     */
+    private <T> T withCachedElement(By locator, boolean requireEnabled, Supplier<WebElement> waitForElement,
+                                    Function<WebElement, T> action) {
+        WebElement cached = ELEMENT_CACHE_ENABLED ? elementCache.get(locator) : null;
+        if (cached != null) {
+            try {
+                if (cached.isDisplayed() && (!requireEnabled || cached.isEnabled())) {
+                    T result = action.apply(cached);
+                    elementCacheHits++;
+                    TOTAL_CACHE_HITS.increment();
+                    return result;
+                }
+            } catch (StaleElementReferenceException e) {
+                TOTAL_STALE_EVICTIONS.increment();
+                invalidateElementCache();
+            }
+        }
+        elementCacheMisses++;
+        TOTAL_CACHE_MISSES.increment();
+        WebElement element = waitForElement.get();
+        if (ELEMENT_CACHE_ENABLED) {
+            elementCache.put(locator, element);
+        }
+        return action.apply(element);
+    }
 }
@@ -2,6 +2,7 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
 
 public class DownloadFilePage extends BasePage {
 
@@ -12,6 +13,14 @@ public class DownloadFilePage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Open the page at web.baseUrl.downloadFile
+     */
+    public DownloadFilePage open() {
+        navigateTo(ConfigReader.get("web.baseUrl.downloadFile"));
+        return this;
+    }
+
     public DownloadFilePage clickOnDownloadFileBtn() {
         safeClick(downloadBtn, 20);
         return this;
@@ -2,6 +2,7 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
 
 public class LoginPage extends BasePage {
     private By username = By.id("username");
@@ -12,6 +13,14 @@ public class LoginPage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Open the page at web.baseUrl
+     */
+    public LoginPage open() {
+        navigateTo(ConfigReader.get("web.baseUrl"));
+        return this;
+    }
+
     /**
      * Login with username and password using explicit waits
      */
@@ -22,6 +31,13 @@ public class LoginPage extends BasePage {
         return this;
     }
 
+    /**
+     * Check that username, password and submit are all visible and enabled in a single round-trip
+     */
+    public boolean isLoginFormReady() {
+        return snapshot(username, password, loginBtn).allVisibleAndEnabled();
+    }
+
     public String getLoggingSuccessMessage() {
         return safeGetText(By.className("post-title"),10);
     }
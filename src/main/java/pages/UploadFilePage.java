@@ -2,6 +2,10 @@ package pages;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import utils.ConfigReader;
+import utils.ElementSnapshot;
+
+import java.util.List;
 
 public class UploadFilePage extends BasePage {
 
@@ -12,12 +16,30 @@ public class UploadFilePage extends BasePage {
         super(driver);
     }
 
+    /**
+     * Open the page at web.baseUrl.uploadFile
+     */
+    public UploadFilePage open() {
+        navigateTo(ConfigReader.get("web.baseUrl.uploadFile"));
+        return this;
+    }
+
     public UploadFilePage uploadFileAndClick(String relativeFilePath, String attributeToWait, int timeoutInSeconds) {
         uploadFileAndWaitForAttribute(chooseFile, relativeFilePath, attributeToWait, timeoutInSeconds);
         safeClick(uploadBtn, 20);
         return this;
     }
 
+    /**
+     * Check that the file input and upload button are ready in a single round-trip
+     */
+    public boolean isUploadFormReady() {
+        ElementSnapshot form = snapshot(List.of(chooseFile, uploadBtn), "type");
+        return form.get(chooseFile).isPresent()
+                && "file".equals(form.get(chooseFile).getAttribute("type"))
+                && form.get(uploadBtn).isVisibleAndEnabled();
+    }
+
     public String getUploadSuccessMessage() {
         return safeGetText(By.tagName("h1"), 10).trim();
     }
@@ -0,0 +1,150 @@
+package utils;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.Wait;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Wait with an adaptive polling schedule: the first polls come quickly (e.g. 25ms)
+ * and the interval backs off geometrically toward a cap that can be tuned per
+ * condition type. Fast conditions resolve in tens of milliseconds while slow ones
+ * don't hammer the driver.
+ * <p>
+ * Instances hold no per-call state and have nothing to configure after construction,
+ * so {@link WaitUtils#getAdaptiveWait} shares one per driver and timeout. Callers that
+ * want to tune timeout, polling or ignored exceptions get a WebDriverWait of their own
+ * from {@link WaitUtils#getCustomWait}.
+ */
+public final class AdaptiveWait implements Wait<WebDriver> {
+
+    /**
+     * Kind of condition being waited on, used to pick the polling cap and group timing stats.
+     */
+    public enum ConditionType {
+        PRESENCE, VISIBILITY, CLICKABLE, INVISIBILITY, TEXT, ATTRIBUTE, SELECTION,
+        FRAME, WINDOW, PAGE_LOAD, ALERT, URL, TITLE, STALENESS, CUSTOM
+    }
+
+    // Polling schedule from config
+    private static final long INITIAL_POLL_MILLIS = ConfigReader.getInt("web.wait.poll.initial.ms", 25);
+    private static final double BACKOFF_FACTOR = ConfigReader.getDouble("web.wait.poll.factor", 1.5);
+    private static final long DEFAULT_MAX_POLL_MILLIS = ConfigReader.getInt("web.wait.poll.max.ms", 500);
+    private static final Map<ConditionType, Long> MAX_POLL_MILLIS = new EnumMap<>(ConditionType.class);
+
+    static {
+        for (ConditionType type : ConditionType.values()) {
+            String key = "web.wait.poll.max.ms." + type.name().toLowerCase(Locale.ROOT);
+            MAX_POLL_MILLIS.put(type, (long) ConfigReader.getInt(key, (int) DEFAULT_MAX_POLL_MILLIS));
+        }
+    }
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final List<Class<? extends Throwable>> ignored;
+
+    /**
+     * Adaptive wait that ignores NotFoundException between polls, like WebDriverWait
+     */
+    AdaptiveWait(WebDriver driver, Duration timeout) {
+        this(driver, timeout, List.of(NotFoundException.class));
+    }
+
+    /**
+     * Adaptive wait that ignores the given exception types between polls
+     */
+    AdaptiveWait(WebDriver driver, Duration timeout, Collection<Class<? extends Throwable>> ignored) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.ignored = List.copyOf(ignored);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        return until(ConditionType.CUSTOM, isTrue);
+    }
+
+    /**
+     * Wait until the condition returns a non-null, non-false value, polling on the
+     * adaptive schedule for the given condition type.
+     */
+    public <V> V until(ConditionType type, Function<? super WebDriver, V> isTrue) {
+        return until(type, timeout, isTrue);
+    }
+
+    /**
+     * Same as {@link #until(ConditionType, Function)} with a shorter timeout, for callers
+     * that already spent part of theirs (e.g. a failed MutationObserverWait script).
+     */
+    <V> V until(ConditionType type, Duration timeout, Function<? super WebDriver, V> isTrue) {
+        // A step of its own when called outside a page-object step (e.g. from WaitUtils)
+        return StepMetrics.time("WaitUtils", "wait " + type.name().toLowerCase(Locale.ROOT), () -> poll(type, timeout, isTrue));
+    }
+
+    private <V> V poll(ConditionType type, Duration timeout, Function<? super WebDriver, V> isTrue) {
+        long start = System.nanoTime();
+        long end = start + timeout.toNanos();
+        long interval = Duration.ofMillis(INITIAL_POLL_MILLIS).toNanos();
+        long cap = Duration.ofMillis(MAX_POLL_MILLIS.get(type)).toNanos();
+        int polls = 0;
+        Throwable lastException = null;
+
+        while (true) {
+            polls++;
+            try {
+                V value = isTrue.apply(driver);
+                if (value != null && (Boolean.class != value.getClass() || Boolean.TRUE.equals(value))) {
+                    WaitStats.record(type, System.nanoTime() - start, polls, true);
+                    StepMetrics.pollsMade(polls);
+                    return value;
+                }
+                lastException = null;
+            } catch (RuntimeException e) {
+                if (!isIgnored(e)) {
+                    throw e;
+                }
+                lastException = e;
+            }
+
+            long remaining = end - System.nanoTime();
+            if (remaining <= 0) {
+                WaitStats.record(type, System.nanoTime() - start, polls, false);
+                StepMetrics.pollsMade(polls);
+                throw new TimeoutException(String.format(
+                        "Expected condition failed: %s (tried for %d ms with adaptive polling, %d polls)",
+                        isTrue, timeout.toMillis(), polls), lastException);
+            }
+
+            try {
+                long sleep = Math.min(interval, remaining);
+                Thread.sleep(sleep / 1_000_000, (int) (sleep % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+            interval = Math.min(cap, (long) (interval * BACKOFF_FACTOR));
+        }
+    }
+
+    private boolean isIgnored(Throwable e) {
+        for (Class<? extends Throwable> type : ignored) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,182 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named browser performance profile, chosen with web.profile and defined by
+ * web.profile.&lt;name&gt;.* keys in config.properties:
+ * <ul>
+ *   <li>pageLoadStrategy: normal | eager (return at DOMContentLoaded) | none</li>
+ *   <li>images, extensions, backgroundNetworking, gpu: true to keep, false to disable</li>
+ *   <li>windowSize: WIDTHxHEIGHT, empty for the browser default</li>
+ * </ul>
+ * Unset keys keep the browser's defaults, so "default" (no keys) is a stock
+ * session. The same settings are translated into Chromium switches for Chrome
+ * and Edge and into preferences for Firefox.
+ */
+public class BrowserProfile {
+
+    private static final String NAVIGATION_TIMING_SCRIPT =
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "if (!nav || location.href === 'about:blank') { return null; }" +
+            "return {url: location.href, ttfb: nav.responseStart, domContentLoaded: nav.domContentLoadedEventEnd," +
+            " load: nav.loadEventEnd, transferSize: nav.transferSize};";
+
+    private static final BrowserProfile active = load(ConfigReader.get("web.profile", "default"));
+
+    private final String name;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean images;
+    private final boolean extensions;
+    private final boolean backgroundNetworking;
+    private final boolean gpu;
+    private final int width;
+    private final int height;
+
+    private BrowserProfile(String name, PageLoadStrategy pageLoadStrategy, boolean images, boolean extensions,
+                           boolean backgroundNetworking, boolean gpu, int width, int height) {
+        this.name = name;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.images = images;
+        this.extensions = extensions;
+        this.backgroundNetworking = backgroundNetworking;
+        this.gpu = gpu;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * The profile named by web.profile.
+     */
+    public static BrowserProfile active() {
+        return active;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean hasWindowSize() {
+        return width > 0;
+    }
+
+    public void apply(ChromiumOptions<?> options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        List<String> arguments = new ArrayList<>();
+        if (!images) {
+            arguments.add("--blink-settings=imagesEnabled=false");
+        }
+        if (!extensions) {
+            arguments.add("--disable-extensions");
+        }
+        if (!backgroundNetworking) {
+            arguments.add("--disable-background-networking");
+            arguments.add("--disable-component-update");
+            arguments.add("--disable-default-apps");
+        }
+        if (!gpu) {
+            arguments.add("--disable-gpu");
+        }
+        if (hasWindowSize()) {
+            arguments.add("--window-size=" + width + "," + height);
+        }
+        options.addArguments(arguments);
+    }
+
+    public void apply(FirefoxOptions options) {
+        options.setPageLoadStrategy(pageLoadStrategy);
+        if (!images) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (!extensions) {
+            options.addPreference("extensions.update.enabled", false);
+            options.addPreference("xpinstall.enabled", false);
+        }
+        if (!backgroundNetworking) {
+            options.addPreference("network.prefetch-next", false);
+            options.addPreference("network.dns.disablePrefetch", true);
+            options.addPreference("app.update.enabled", false);
+            options.addPreference("app.normandy.enabled", false);
+            options.addPreference("datareporting.policy.dataSubmissionEnabled", false);
+        }
+        if (!gpu) {
+            options.addPreference("layers.acceleration.disabled", true);
+        }
+        if (hasWindowSize()) {
+            options.addArguments("--width=" + width, "--height=" + height);
+        }
+    }
+
+    /**
+     * The profile and the navigation timing of the page currently loaded, as one
+     * report line.
+     */
+    public String describeNavigation(WebDriver driver) {
+        String prefix = String.format("Browser profile %s (pageLoadStrategy=%s): ", name, pageLoadStrategy);
+        Object result = null;
+        if (driver instanceof JavascriptExecutor) {
+            try {
+                result = ((JavascriptExecutor) driver).executeScript(NAVIGATION_TIMING_SCRIPT);
+            } catch (RuntimeException e) {
+                // Session gone or page mid-navigation; the test outcome matters more than its timing
+            }
+        }
+        if (!(result instanceof Map)) {
+            return prefix + "no navigation timing";
+        }
+        Map<?, ?> timing = (Map<?, ?>) result;
+        return prefix + String.format("%s ttfb=%s domContentLoaded=%s load=%s transfer=%s bytes",
+                timing.get("url"), millis(timing.get("ttfb")), millis(timing.get("domContentLoaded")),
+                millis(timing.get("load")), timing.get("transferSize"));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (pageLoadStrategy=%s images=%s extensions=%s backgroundNetworking=%s gpu=%s window=%s)",
+                name, pageLoadStrategy, images, extensions, backgroundNetworking, gpu,
+                hasWindowSize() ? width + "x" + height : "default");
+    }
+
+    private static String millis(Object value) {
+        // 0 means the event had not fired yet (e.g. pageLoadStrategy none/eager)
+        if (!(value instanceof Number) || ((Number) value).doubleValue() <= 0) {
+            return "-";
+        }
+        return String.format("%.0fms", ((Number) value).doubleValue());
+    }
+
+    private static BrowserProfile load(String name) {
+        String prefix = "web.profile." + name + ".";
+        String strategy = ConfigReader.get(prefix + "pageLoadStrategy", "normal");
+        String windowSize = ConfigReader.get(prefix + "windowSize", "").trim();
+        int width = 0;
+        int height = 0;
+        if (!windowSize.isEmpty()) {
+            String[] parts = windowSize.toLowerCase().split("x");
+            try {
+                width = Integer.parseInt(parts[0].trim());
+                height = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid " + prefix + "windowSize '" + windowSize + "', expected WIDTHxHEIGHT");
+            }
+        }
+        PageLoadStrategy pageLoadStrategy = PageLoadStrategy.fromString(strategy.trim().toLowerCase());
+        if (pageLoadStrategy == null) {
+            throw new IllegalArgumentException("Invalid " + prefix + "pageLoadStrategy '" + strategy + "', expected normal, eager or none");
+        }
+        return new BrowserProfile(name, pageLoadStrategy,
+                ConfigReader.getBoolean(prefix + "images", true),
+                ConfigReader.getBoolean(prefix + "extensions", true),
+                ConfigReader.getBoolean(prefix + "backgroundNetworking", true),
+                ConfigReader.getBoolean(prefix + "gpu", true),
+                width, height);
+    }
+}
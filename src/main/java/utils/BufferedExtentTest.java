@@ -0,0 +1,92 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Test-thread handle for an Extent test. Log calls are queued on
+ * {@link ReportEventQueue} and applied to the real ExtentTest by the report
+ * thread, which is the only thread that ever touches it. When report shards are
+ * enabled the same events are also streamed to {@link ReportShardWriter}.
+ */
+public class BufferedExtentTest {
+
+    private static final AtomicLong sequence = new AtomicLong();
+
+    private final String id;
+    private final String name;
+    // Written and read only on the report thread
+    private ExtentTest extentTest;
+
+    BufferedExtentTest(String name) {
+        this.id = ReportShardWriter.getShardId() + "-" + sequence.incrementAndGet();
+        this.name = name;
+        String thread = Thread.currentThread().getName();
+        if (ReportShardWriter.isExtentEnabled()) {
+            ReportEventQueue.submit(extent -> extentTest = extent.createTest(name));
+        }
+        if (ReportShardWriter.isEnabled()) {
+            ReportEventQueue.execute(() -> ReportShardWriter.start(id, name, thread));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BufferedExtentTest log(Status status, String details) {
+        return apply(status, details, test -> test.log(status, details));
+    }
+
+    public BufferedExtentTest info(String details) {
+        return apply(Status.INFO, details, test -> test.info(details));
+    }
+
+    public BufferedExtentTest pass(String details) {
+        return apply(Status.PASS, details, test -> test.pass(details));
+    }
+
+    public BufferedExtentTest fail(String details) {
+        return apply(Status.FAIL, details, test -> test.fail(details));
+    }
+
+    public BufferedExtentTest skip(String details) {
+        return apply(Status.SKIP, details, test -> test.skip(details));
+    }
+
+    public BufferedExtentTest warning(String details) {
+        return apply(Status.WARNING, details, test -> test.warning(details));
+    }
+
+    public BufferedExtentTest addScreenCaptureFromPath(String path) {
+        if (ReportShardWriter.isExtentEnabled()) {
+            ReportEventQueue.submit(extent -> extentTest.addScreenCaptureFromPath(path));
+        }
+        if (ReportShardWriter.isEnabled()) {
+            ReportEventQueue.execute(() -> ReportShardWriter.screenshot(id, path));
+        }
+        return this;
+    }
+
+    /**
+     * Mark the test finished in the shard so the merger can emit it without waiting for the end of the file.
+     */
+    void end() {
+        if (ReportShardWriter.isEnabled()) {
+            ReportEventQueue.execute(() -> ReportShardWriter.end(id));
+        }
+    }
+
+    private BufferedExtentTest apply(Status status, String details, Consumer<ExtentTest> action) {
+        if (ReportShardWriter.isExtentEnabled()) {
+            ReportEventQueue.submit(extent -> action.accept(extentTest));
+        }
+        if (ReportShardWriter.isEnabled()) {
+            ReportEventQueue.execute(() -> ReportShardWriter.log(id, status.toString(), details));
+        }
+        return this;
+    }
+}
@@ -0,0 +1,35 @@
+package utils;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over a resource (a file, a reader thread) that is released when
+ * the iterator is exhausted, or by {@link #close()} when the caller stops early.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    @Override
+    void close();
+
+    /**
+     * An iterator that holds no resource, e.g. over a list already in memory.
+     */
+    static <T> CloseableIterator<T> of(Iterator<T> iterator) {
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                // Nothing to release
+            }
+        };
+    }
+}
@@ -1,56 +1,193 @@
 package utils;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalUnit;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
+/**
+ * Immutable configuration snapshot built once when the class loads. Values come
+ * from config.properties (classpath first, then src/main/resources), overridden
+ * by environment variables (api.baseUrl -&gt; API_BASEURL) and then by system
+ * properties (-Dapi.baseUrl=...). Numbers, booleans, ISO-8601 durations and
+ * URLs are parsed up front into read-only maps, so lookups are lock-free and
+ * never re-parse.
+ * <p>
+ * {@link #override} (e.g. pointing base URLs at the local stub server) swaps in
+ * a new snapshot; code that cached a value in a static field before that keeps
+ * the old one.
+ */
 public class ConfigReader {
-    private static Properties properties;
+    private static final String CONFIG_FILE = "config.properties";
+
+    private static volatile Snapshot snapshot;
+
     static {
-        try {
-            FileInputStream fileInputStream = new FileInputStream("src/main/resources/config.properties");
-            properties = new Properties();
-            properties.load(fileInputStream);
+        Properties properties = load();
+        Map<String, String> layered = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            String env = System.getenv(key.toUpperCase().replaceAll("[^A-Z0-9]", "_"));
+            layered.put(key, env != null ? env : properties.getProperty(key));
+        }
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            layered.put(key, system.getProperty(key));
+        }
+        snapshot = new Snapshot(layered);
+    }
+
+    /**
+     * Replace the given keys for the rest of the run, on top of every other layer.
+     */
+    public static synchronized void override(Map<String, String> overrides) {
+        Map<String, String> merged = new HashMap<>(snapshot.values);
+        merged.putAll(overrides);
+        snapshot = new Snapshot(merged);
+    }
+
+    private static final class Snapshot {
+        final Map<String, String> values;
+        final Map<String, Integer> ints;
+        final Map<String, Long> longs;
+        final Map<String, Double> doubles;
+        final Map<String, Boolean> booleans;
+        final Map<String, Duration> durations;
+        final Map<String, URI> uris;
+
+        Snapshot(Map<String, String> layered) {
+            Map<String, Integer> parsedInts = new HashMap<>();
+            Map<String, Long> parsedLongs = new HashMap<>();
+            Map<String, Double> parsedDoubles = new HashMap<>();
+            Map<String, Boolean> parsedBooleans = new HashMap<>();
+            Map<String, Duration> parsedDurations = new HashMap<>();
+            Map<String, URI> parsedUris = new HashMap<>();
+            for (Map.Entry<String, String> entry : layered.entrySet()) {
+                String key = entry.getKey();
+                String value = entry.getValue().trim();
+                parsedBooleans.put(key, Boolean.parseBoolean(value));
+                try {
+                    long number = Long.parseLong(value);
+                    parsedLongs.put(key, number);
+                    if (number == (int) number) {
+                        parsedInts.put(key, (int) number);
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Not an integer
+                }
+                try {
+                    parsedDoubles.put(key, Double.parseDouble(value));
+                } catch (NumberFormatException ignored) {
+                    // Not a number
+                }
+                if (value.startsWith("P")) {
+                    try {
+                        parsedDurations.put(key, Duration.parse(value));
+                    } catch (DateTimeParseException ignored) {
+                        // Not an ISO-8601 duration
+                    }
+                }
+                if (value.startsWith("http://") || value.startsWith("https://")) {
+                    try {
+                        parsedUris.put(key, URI.create(value));
+                    } catch (IllegalArgumentException ignored) {
+                        // Not a valid URL
+                    }
+                }
+            }
+
+            values = Map.copyOf(layered);
+            ints = Map.copyOf(parsedInts);
+            longs = Map.copyOf(parsedLongs);
+            doubles = Map.copyOf(parsedDoubles);
+            booleans = Map.copyOf(parsedBooleans);
+            durations = Map.copyOf(parsedDurations);
+            uris = Map.copyOf(parsedUris);
+        }
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream classpath = ConfigReader.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (classpath != null) {
+                properties.load(classpath);
+                return properties;
+            }
+            Path source = Paths.get("src", "main", "resources", CONFIG_FILE);
+            if (Files.exists(source)) {
+                try (InputStream file = new FileInputStream(source.toFile())) {
+                    properties.load(file);
+                    return properties;
+                }
+            }
         } catch (IOException e) {
             e.printStackTrace();
-            throw new RuntimeException("Could not load config.properties file.");
         }
+        throw new RuntimeException("Could not load config.properties file.");
     }
 
     public static String get(String key) {
-        return properties.getProperty(key);
+        return snapshot.values.get(key);
     }
-    
+
     /**
      * Get property value with default fallback
      */
     public static String get(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        return snapshot.values.getOrDefault(key, defaultValue);
     }
-    
+
     /**
      * Get integer property value with default fallback
      */
     public static int getInt(String key, int defaultValue) {
-        String value = properties.getProperty(key);
-        if (value != null) {
-            try {
-                return Integer.parseInt(value);
-            } catch (NumberFormatException e) {
-                return defaultValue;
-            }
-        }
-        return defaultValue;
+        return snapshot.ints.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Get long property value with default fallback
+     */
+    public static long getLong(String key, long defaultValue) {
+        return snapshot.longs.getOrDefault(key, defaultValue);
     }
-    
+
+    /**
+     * Get decimal property value with default fallback
+     */
+    public static double getDouble(String key, double defaultValue) {
+        return snapshot.doubles.getOrDefault(key, defaultValue);
+    }
+
     /**
      * Get boolean property value with default fallback
      */
     public static boolean getBoolean(String key, boolean defaultValue) {
-        String value = properties.getProperty(key);
-        if (value != null) {
-            return Boolean.parseBoolean(value);
+        return snapshot.booleans.getOrDefault(key, defaultValue);
+    }
+
+    /**
+     * Get duration property value: a plain number in the given unit or an ISO-8601 duration (PT1.5S)
+     */
+    public static Duration getDuration(String key, TemporalUnit unit, Duration defaultValue) {
+        Duration parsed = snapshot.durations.get(key);
+        if (parsed != null) {
+            return parsed;
         }
-        return defaultValue;
+        Long amount = snapshot.longs.get(key);
+        return amount != null ? Duration.of(amount, unit) : defaultValue;
+    }
+
+    /**
+     * Get URL property value, or null if missing or not an http(s) URL
+     */
+    public static URI getUri(String key) {
+        return snapshot.uris.get(key);
     }
 }
@@ -0,0 +1,197 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects a browser download finishing in the download directory without sleeping.
+ * Start watching before clicking the download link, then await completion: the
+ * tracker wakes on file system events (new file, .crdownload renamed to its final
+ * name) and returns as soon as a new matching file exists, has no partial
+ * companion and its size has stopped changing.
+ */
+public class DownloadTracker implements Closeable {
+
+    // Temporary files browsers write while a download is in progress
+    private static final String[] PARTIAL_SUFFIXES = {".crdownload", ".part", ".tmp", ".download"};
+
+    // A file counts as complete once its size is unchanged for this long
+    private static final long STABLE_MILLIS = 250;
+
+    private final Path directory;
+    private final PathMatcher matcher;
+    private final WatchService watcher;
+    private final Set<Path> existingFiles = new HashSet<>();
+
+    private Path candidate;
+    private long candidateSize = -1;
+    private long candidateSince;
+
+    private DownloadTracker(Path directory, String fileNameGlob) throws IOException {
+        this.directory = directory;
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + fileNameGlob);
+        Files.createDirectories(directory);
+        this.watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            files.forEach(existingFiles::add);
+        }
+    }
+
+    /**
+     * Start watching a directory for a new download whose file name matches the glob (e.g. "*.csv").
+     */
+    public static DownloadTracker watch(Path directory, String fileNameGlob) {
+        try {
+            return new DownloadTracker(directory, fileNameGlob);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not watch download directory: " + directory, e);
+        }
+    }
+
+    /**
+     * Block until a new matching file has finished downloading and return its path.
+     */
+    public Path awaitCompletion(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                Path completed = findCompletedDownload();
+                if (completed != null) {
+                    return completed;
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    throw new RuntimeException("Download did not complete within " + timeout.getSeconds()
+                            + "s in " + directory + (candidate != null ? " (last seen: " + candidate + ")" : ""));
+                }
+                // Wake on the next file event, or re-check size once the stability window has passed
+                WatchKey key = watcher.poll(Math.min(remainingMillis, STABLE_MILLIS), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for download in " + directory, e);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to inspect download directory: " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close download watcher: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compute a checksum by streaming the file through a small buffer, never loading it whole.
+     *
+     * @param algorithm MessageDigest algorithm, e.g. "SHA-256" or "MD5"
+     * @return lower-case hex digest
+     */
+    public static String checksum(Path file, String algorithm) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Could not compute " + algorithm + " of " + file, e);
+        }
+    }
+
+    /**
+     * Assert the downloaded file size is within the expected range (inclusive).
+     */
+    public static void assertSize(Path file, long minBytes, long maxBytes) {
+        try {
+            long size = Files.size(file);
+            if (size < minBytes || size > maxBytes) {
+                throw new AssertionError("Downloaded file " + file.getFileName() + " is " + size
+                        + " bytes, expected between " + minBytes + " and " + maxBytes);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read size of " + file, e);
+        }
+    }
+
+    private Path findCompletedDownload() throws IOException {
+        Path newest = null;
+        boolean partialPresent = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (existingFiles.contains(file)) {
+                    continue;
+                }
+                if (isPartial(file)) {
+                    partialPresent = true;
+                } else if (matcher.matches(file.getFileName()) && Files.isRegularFile(file)) {
+                    newest = file;
+                }
+            }
+        }
+        if (newest == null || partialPresent && hasPartialCompanion(newest)) {
+            return null;
+        }
+
+        long size = Files.size(newest);
+        long now = System.currentTimeMillis();
+        if (!newest.equals(candidate) || size != candidateSize) {
+            candidate = newest;
+            candidateSize = size;
+            candidateSince = now;
+            return null;
+        }
+        return size > 0 && now - candidateSince >= STABLE_MILLIS ? newest : null;
+    }
+
+    private boolean hasPartialCompanion(Path file) {
+        for (String suffix : PARTIAL_SUFFIXES) {
+            if (Files.exists(file.resolveSibling(file.getFileName() + suffix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isPartial(Path file) {
+        String name = file.getFileName().toString();
+        for (String suffix : PARTIAL_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,78 +1,187 @@
 package utils;
 
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.http.ClientConfig;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 
 public class DriverFactory {
 
-    // Keeps a separate WebDriver instance per test thread.
-    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Shared pool of warm browser sessions, leased to one test thread at a time.
+    private static final DriverPool pool = new DriverPool(
+            ConfigReader.getInt("web.driver.pool.size", 4),
+            ConfigReader.getInt("web.driver.pool.maxUses", 20),
+            ConfigReader.getDuration("web.driver.pool.leaseTimeout", ChronoUnit.SECONDS, Duration.ofSeconds(120))
+    );
 
-    public static WebDriver getDriver() {
-        if (driver.get() == null) {
-            String browser = System.getProperty("browser", "chrome").toLowerCase();
-            boolean isHeadless = Boolean.parseBoolean(System.getProperty("headless", "false"));
-
-            switch (browser) {
-                case "firefox":
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
-                    if (isHeadless) {
-                        firefoxOptions.addArguments("-headless");
-                    }
-                    driver.set(new FirefoxDriver(firefoxOptions));
-                    break;
+    // Keeps a separate leased WebDriver session per test thread.
+    private static final ThreadLocal<DriverPool.PooledSession> session = new ThreadLocal<>();
 
-                case "edge":
-                    EdgeOptions edgeOptions = new EdgeOptions();
-                    if (isHeadless) {
-                        edgeOptions.addArguments("headless");
-                    }
-                    driver.set(new EdgeDriver(edgeOptions));
-                    break;
-
-                case "chrome":
-                default:
-                    // Set Chrome preferences
-                    Map<String, Object> prefs = new HashMap<>();
-
-//                    String downloadFilepath = System.getProperty("user.dir") + File.separator + "downloads";
-                    String downloadFilepath = System.getProperty("user.dir") + "/downloads/";
-                    File file = new File(downloadFilepath);
-                    if (!file.exists()) file.mkdirs();
-                    System.out.println(downloadFilepath);
-
-                    prefs.put("download.default_directory", downloadFilepath);  // ⬅️ Set your folder path
-                    prefs.put("download.prompt_for_download", false);
-                    prefs.put("safebrowsing.enabled", true);  // Avoid "keep file" warnings
-                    ChromeOptions chromeOptions = new ChromeOptions();
-                    chromeOptions.setExperimentalOption("prefs", prefs);
-                    if (isHeadless) {
-                        chromeOptions.addArguments("--headless=new"); // for latest Chrome versions
-                        chromeOptions.addArguments("--window-size=1920,1080");
+    public static WebDriver getDriver() {
+        if (session.get() == null) {
+            String browser = getBrowser();
+            boolean isHeadless = isHeadless();
 
-                    }
-                    driver.set(new ChromeDriver(chromeOptions));
-                    break;
-            }
+            Capabilities options = createOptions(browser, isHeadless);
+            session.set(pool.lease(poolKey(browser, isHeadless, options), () -> createDriver(options)));
         }
-        return driver.get();
+        return session.get().getDriver();
+    }
+
+    /**
+     * Start the given number of browser sessions in the background so the first
+     * tests find warm sessions instead of waiting on browser startup.
+     */
+    public static void warmUp(int sessions) {
+        String browser = getBrowser();
+        boolean isHeadless = isHeadless();
+
+        Capabilities options = createOptions(browser, isHeadless);
+        pool.warmUp(poolKey(browser, isHeadless, options), () -> createDriver(options), sessions);
     }
 
+    /**
+     * Return the current thread's session to the pool so the next test can reuse it.
+     */
+    public static void releaseDriver() {
+        DriverPool.PooledSession pooledSession = session.get();
+        if (pooledSession != null) {
+            session.remove();
+            pool.release(pooledSession);
+        }
+    }
 
+    /**
+     * Quit the current thread's session instead of returning it to the pool.
+     */
     public static void quitDriver() {
-        WebDriver webDriver = driver.get();
-        if (webDriver != null) {
-            webDriver.quit();
-            driver.remove();
+        DriverPool.PooledSession pooledSession = session.get();
+        if (pooledSession != null) {
+            session.remove();
+            pool.invalidate(pooledSession);
+        }
+    }
+
+    /**
+     * Quit all idle pooled sessions (call once at the end of the suite).
+     */
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    public static DriverPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Directory Chrome saves downloads into.
+     */
+    public static Path getDownloadDirectory() {
+        return Paths.get(System.getProperty("user.dir"), "downloads");
+    }
+
+    private static String getBrowser() {
+        return ConfigReader.get("browser", "chrome").toLowerCase();
+    }
+
+    private static boolean isHeadless() {
+        return ConfigReader.getBoolean("headless", false);
+    }
+
+    private static String poolKey(String browser, boolean isHeadless, Capabilities options) {
+        return browser + "|headless=" + isHeadless + "|" + options.asMap();
+    }
+
+    private static Capabilities createOptions(String browser, boolean isHeadless) {
+        // Page-load strategy, disabled features and window size from web.profile
+        BrowserProfile profile = BrowserProfile.active();
+        switch (browser) {
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                if (isHeadless) {
+                    firefoxOptions.addArguments("-headless");
+                }
+                profile.apply(firefoxOptions);
+                return firefoxOptions;
+
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                if (isHeadless) {
+                    edgeOptions.addArguments("headless");
+                }
+                profile.apply(edgeOptions);
+                return edgeOptions;
+
+            case "chrome":
+            default:
+                // Set Chrome preferences
+                Map<String, Object> prefs = new HashMap<>();
+
+                String downloadFilepath = getDownloadDirectory() + File.separator;
+                File file = new File(downloadFilepath);
+                if (!file.exists()) file.mkdirs();
+                System.out.println(downloadFilepath);
+
+                prefs.put("download.default_directory", downloadFilepath);  // ⬅️ Set your folder path
+                prefs.put("download.prompt_for_download", false);
+                prefs.put("safebrowsing.enabled", true);  // Avoid "keep file" warnings
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.setExperimentalOption("prefs", prefs);
+                if (isHeadless) {
+                    chromeOptions.addArguments("--headless=new"); // for latest Chrome versions
+                    if (!profile.hasWindowSize()) {
+                        chromeOptions.addArguments("--window-size=1920,1080");
+                    }
+                }
+                profile.apply(chromeOptions);
+                return chromeOptions;
+        }
+    }
+
+    private static WebDriver createDriver(Capabilities options) {
+        WebDriver driver;
+        if (!StepMetrics.isEnabled()) {
+            if (options instanceof FirefoxOptions) {
+                driver = new FirefoxDriver((FirefoxOptions) options);
+            } else if (options instanceof EdgeOptions) {
+                driver = new EdgeDriver((EdgeOptions) options);
+            } else {
+                driver = new ChromeDriver((ChromeOptions) options);
+            }
+        } else {
+            // Count every WebDriver command per test step on the driver's own HTTP client
+            ClientConfig clientConfig = ClientConfig.defaultConfig().withFilter(StepMetrics.commandCounter());
+            if (options instanceof FirefoxOptions) {
+                driver = new FirefoxDriver(GeckoDriverService.createDefaultService(), (FirefoxOptions) options, clientConfig);
+            } else if (options instanceof EdgeOptions) {
+                driver = new EdgeDriver(EdgeDriverService.createDefaultService(), (EdgeOptions) options, clientConfig);
+            } else {
+                driver = new ChromeDriver(ChromeDriverService.createDefaultService(), (ChromeOptions) options, clientConfig);
+            }
+        }
+        // Once per session; the policy stays in place while the pool reuses it
+        try {
+            NetworkPolicy.install(driver);
+        } catch (RuntimeException e) {
+            driver.quit(); // The pool never sees this session, so nothing else would quit it
+            throw e;
         }
+        return driver;
     }
 }
@@ -0,0 +1,449 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm WebDriver sessions.
+ * Sessions are grouped by a key (browser + headless + options) and leased to one
+ * test thread at a time. On release a session is reset (cookies, storage, extra
+ * windows, about:blank) and handed to the next test instead of being quit. On
+ * Chrome and Edge cookies are cleared browser-wide and storage for every origin
+ * the session's windows navigated to (not origins only loaded in iframes); on
+ * Firefox WebDriver can only clear the cookies and storage of the page open at
+ * the end of the test, so state other domains set may reach the next test.
+ * When a lease empties the idle queue a spare is launched in the background, but
+ * only while the pool holds fewer sessions than the most tests that have wanted
+ * one at the same time, so a sequential run keeps a single browser. A test that
+ * finds nothing idle launches its own session whenever the key is below its limit.
+ */
+public class DriverPool {
+
+    private static final String RESET_STORAGE_SCRIPT =
+            "try { window.localStorage.clear(); } catch (e) {}" +
+            "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private final int maxSessionsPerKey;
+    private final int maxUsesPerSession;
+    private final Duration leaseTimeout;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final ExecutorService launcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "driver-launcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    // Metrics for sizing the pool
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong recycled = new AtomicLong();
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong firstDemandNanos = new AtomicLong();
+    private final AtomicLong timeToFirstSessionNanos = new AtomicLong(-1);
+    private final Map<String, LaunchStats> launchStats = new ConcurrentHashMap<>();
+
+    public DriverPool(int maxSessionsPerKey, int maxUsesPerSession, Duration leaseTimeout) {
+        this.maxSessionsPerKey = maxSessionsPerKey;
+        this.maxUsesPerSession = maxUsesPerSession;
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Start up to {@code count} sessions for the given key in parallel without blocking.
+     * Call before the first test so the pool is warm when tests begin leasing.
+     */
+    public void warmUp(String key, Supplier<WebDriver> factory, int count) {
+        markDemand();
+        Bucket bucket = bucket(key);
+        for (int i = 0; i < count && bucket.permits.tryAcquire(); i++) {
+            launchAsync(key, bucket, factory);
+        }
+    }
+
+    /**
+     * Lease a session for the given key. An idle session is handed out first;
+     * otherwise the session is launched on the calling thread if the key is below
+     * its limit, or the caller waits for one to be released or finish launching.
+     */
+    public PooledSession lease(String key, Supplier<WebDriver> factory) {
+        markDemand();
+        Bucket bucket = bucket(key);
+        bucket.peakWanted.accumulateAndGet(bucket.wanted.incrementAndGet(), Math::max);
+        boolean leased = false;
+        long start = System.nanoTime();
+        long deadline = start + leaseTimeout.toNanos();
+        try {
+            while (true) {
+                PooledSession session = bucket.idle.pollFirst();
+                if (session != null) {
+                    hits.incrementAndGet();
+                    replenish(key, bucket, factory);
+                    leased = true;
+                    return session.leased();
+                }
+                if (bucket.permits.tryAcquire()) {
+                    misses.incrementAndGet();
+                    session = launch(key, bucket, factory);
+                    leased = true;
+                    return session.leased();
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new RuntimeException("Timed out after " + leaseTimeout.getSeconds()
+                            + "s waiting for a free WebDriver session for " + key);
+                }
+                session = bucket.idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(50)), TimeUnit.NANOSECONDS);
+                if (session != null) {
+                    hits.incrementAndGet();
+                    replenish(key, bucket, factory);
+                    leased = true;
+                    return session.leased();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a WebDriver session", e);
+        } finally {
+            if (!leased) {
+                bucket.wanted.decrementAndGet();
+            }
+            long waited = System.nanoTime() - start;
+            leases.incrementAndGet();
+            totalLeaseWaitNanos.addAndGet(waited);
+            maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+
+    /**
+     * Return a session to the pool. Sessions that are worn out or unhealthy are
+     * quit and their slot is freed for a fresh launch.
+     */
+    public void release(PooledSession session) {
+        Bucket bucket = buckets.get(session.key);
+        if (bucket == null) {
+            quitQuietly(session.driver);
+            return;
+        }
+        bucket.wanted.decrementAndGet();
+        if (closed || session.uses >= maxUsesPerSession || !isHealthy(session.driver) || !reset(session)) {
+            discard(bucket, session);
+            return;
+        }
+        bucket.idle.offerFirst(session);
+    }
+
+    /**
+     * Quit a session without returning it to the pool.
+     */
+    public void invalidate(PooledSession session) {
+        Bucket bucket = buckets.get(session.key);
+        if (bucket == null) {
+            quitQuietly(session.driver);
+        } else {
+            bucket.wanted.decrementAndGet();
+            discard(bucket, session);
+        }
+    }
+
+    /**
+     * Quit every idle session. Sessions still leased or launching are quit when they come back.
+     */
+    public void shutdown() {
+        closed = true;
+        launcher.shutdown();
+        for (Bucket bucket : buckets.values()) {
+            PooledSession session;
+            while ((session = bucket.idle.pollFirst()) != null) {
+                discard(bucket, session);
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRecycled() {
+        return recycled.get();
+    }
+
+    public double getAverageLeaseWaitMillis() {
+        long count = leases.get();
+        return count == 0 ? 0 : totalLeaseWaitNanos.get() / (count * 1_000_000.0);
+    }
+
+    public double getMaxLeaseWaitMillis() {
+        return maxLeaseWaitNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Time from the first warm-up or lease request until the first session was ready, or -1 if none yet.
+     */
+    public double getTimeToFirstSessionMillis() {
+        long nanos = timeToFirstSessionNanos.get();
+        return nanos < 0 ? -1 : nanos / 1_000_000.0;
+    }
+
+    /**
+     * Average launch latency per browser type, in milliseconds.
+     */
+    public Map<String, Double> getAverageLaunchMillisByBrowser() {
+        Map<String, Double> averages = new TreeMap<>();
+        launchStats.forEach((browser, stats) -> averages.put(browser, stats.averageMillis()));
+        return averages;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DriverPool[hits=%d, misses=%d, recycled=%d, avgLeaseWait=%.1fms, maxLeaseWait=%.1fms, "
+                        + "timeToFirstSession=%.1fms, avgLaunch=%s]",
+                getHits(), getMisses(), getRecycled(), getAverageLeaseWaitMillis(), getMaxLeaseWaitMillis(),
+                getTimeToFirstSessionMillis(), getAverageLaunchMillisByBrowser());
+    }
+
+    private Bucket bucket(String key) {
+        return buckets.computeIfAbsent(key, k -> new Bucket(maxSessionsPerKey));
+    }
+
+    private void markDemand() {
+        firstDemandNanos.compareAndSet(0, System.nanoTime());
+    }
+
+    /**
+     * Launch a spare in the background once the idle queue runs dry, unless the
+     * pool already holds (or is launching) as many sessions as the peak demand.
+     */
+    private void replenish(String key, Bucket bucket, Supplier<WebDriver> factory) {
+        int sessions = maxSessionsPerKey - bucket.permits.availablePermits();
+        if (!closed && bucket.idle.isEmpty() && sessions < bucket.peakWanted.get() && bucket.permits.tryAcquire()) {
+            launchAsync(key, bucket, factory);
+        }
+    }
+
+    private void launchAsync(String key, Bucket bucket, Supplier<WebDriver> factory) {
+        try {
+            launcher.execute(() -> {
+                try {
+                    PooledSession session = launch(key, bucket, factory);
+                    if (closed) {
+                        discard(bucket, session);
+                    } else {
+                        bucket.idle.offerLast(session);
+                    }
+                } catch (RuntimeException e) {
+                    System.out.println("Background WebDriver launch failed: " + e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            bucket.permits.release();
+        }
+    }
+
+    private PooledSession launch(String key, Bucket bucket, Supplier<WebDriver> factory) {
+        long start = System.nanoTime();
+        WebDriver driver;
+        try {
+            driver = factory.get();
+        } catch (RuntimeException e) {
+            bucket.permits.release();
+            throw e;
+        }
+        long end = System.nanoTime();
+        launchStats.computeIfAbsent(browserOf(key), b -> new LaunchStats()).record(end - start);
+        timeToFirstSessionNanos.compareAndSet(-1, end - firstDemandNanos.get());
+        String window;
+        try {
+            window = driver.getWindowHandle();
+        } catch (RuntimeException e) {
+            quitQuietly(driver);
+            bucket.permits.release();
+            throw e;
+        }
+        return new PooledSession(key, driver, window);
+    }
+
+    private static String browserOf(String key) {
+        int separator = key.indexOf('|');
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    private void discard(Bucket bucket, PooledSession session) {
+        recycled.incrementAndGet();
+        quitQuietly(session.driver);
+        bucket.permits.release();
+    }
+
+    private static boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bring a session back to a clean state: only the window it was created with, no
+     * cookies or storage, about:blank. If a test closed that window the session is discarded.
+     */
+    private static boolean reset(PooledSession session) {
+        WebDriver driver = session.driver;
+        HasCdp cdp = driver instanceof HasCdp ? (HasCdp) driver : null;
+        Set<String> origins = new HashSet<>();
+        try {
+            Set<String> handles = driver.getWindowHandles();
+            String keep = session.window;
+            if (!handles.contains(keep)) {
+                System.out.println("Discarding WebDriver session whose original window was closed");
+                return false;
+            }
+            for (String handle : handles) {
+                if (!handle.equals(keep)) {
+                    driver.switchTo().window(handle);
+                    collectOrigins(cdp, origins);
+                    driver.close();
+                }
+            }
+            driver.switchTo().window(keep);
+            if (cdp != null) {
+                // Browser-wide, unlike deleteAllCookies() which only sees the current domain
+                collectOrigins(cdp, origins);
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                for (String origin : origins) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            ((JavascriptExecutor) driver).executeScript(RESET_STORAGE_SCRIPT);
+            driver.get("about:blank");
+            if (cdp != null) {
+                // So the next reset only sees origins of the next test
+                cdp.executeCdpCommand("Page.resetNavigationHistory", Map.of());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.out.println("Discarding WebDriver session that failed to reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Add the http(s) origins in the current window's navigation history.
+     */
+    private static void collectOrigins(HasCdp cdp, Set<String> origins) {
+        if (cdp == null) {
+            return;
+        }
+        Object entries = cdp.executeCdpCommand("Page.getNavigationHistory", Map.of()).get("entries");
+        if (!(entries instanceof List)) {
+            return;
+        }
+        for (Object entry : (List<?>) entries) {
+            Object url = entry instanceof Map ? ((Map<?, ?>) entry).get("url") : null;
+            try {
+                URI uri = URI.create(String.valueOf(url));
+                if (("http".equals(uri.getScheme()) || "https".equals(uri.getScheme())) && uri.getHost() != null) {
+                    origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a URL we can derive an origin from (e.g. data: with odd characters)
+            }
+        }
+    }
+
+    private static void quitQuietly(WebDriver driver) {
+        WaitUtils.removeWaits(driver);
+        try {
+            driver.quit();
+        } catch (RuntimeException e) {
+            System.out.println("Failed to quit WebDriver session: " + e.getMessage());
+        }
+    }
+
+    private static class Bucket {
+        private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+        // Tests holding or waiting for a session now, and the most there have been at once
+        private final AtomicInteger wanted = new AtomicInteger();
+        private final AtomicInteger peakWanted = new AtomicInteger();
+        private final Semaphore permits;
+
+        private Bucket(int maxSessions) {
+            this.permits = new Semaphore(maxSessions);
+        }
+    }
+
+    private static class LaunchStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private void record(long nanos) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+        }
+
+        private double averageMillis() {
+            long launches = count.get();
+            return launches == 0 ? 0 : totalNanos.get() / (launches * 1_000_000.0);
+        }
+    }
+
+    /**
+     * A WebDriver session owned by the pool together with its usage count.
+     */
+    public static class PooledSession {
+        private final String key;
+        private final WebDriver driver;
+        // Handle of the window the session was created with, the one reset() keeps
+        private final String window;
+        private int uses;
+
+        private PooledSession(String key, WebDriver driver, String window) {
+            this.key = key;
+            this.driver = driver;
+            this.window = window;
+        }
+
+        private PooledSession leased() {
+            uses++;
+            return this;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        public int getUses() {
+            return uses;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of several elements read in a single executeScript call: presence,
+ * displayed, enabled, text and selected attributes per locator. Replaces a
+ * chain of findElement/isDisplayed/isEnabled/getText round-trips when a page
+ * object needs to check a whole form at once.
+ */
+public class ElementSnapshot {
+
+    private static final String SCRIPT =
+            "var locators = arguments[0], attributes = arguments[1], states = [];\n" +
+            "function find(using, value) {\n" +
+            "  if (using === 'xpath') {\n" +
+            "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "  }\n" +
+            "  return document.querySelector(value);\n" +
+            "}\n" +
+            "function visible(el) {\n" +
+            "  var style = window.getComputedStyle(el);\n" +
+            "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse') return false;\n" +
+            "  var rect = el.getBoundingClientRect();\n" +
+            "  return rect.width > 0 && rect.height > 0;\n" +
+            "}\n" +
+            "for (var i = 0; i < locators.length; i++) {\n" +
+            "  var el = find(locators[i][0], locators[i][1]);\n" +
+            "  if (!el) { states.push({present: false}); continue; }\n" +
+            "  var attrs = {};\n" +
+            "  for (var j = 0; j < attributes.length; j++) { attrs[attributes[j]] = el.getAttribute(attributes[j]); }\n" +
+            "  var displayed = visible(el);\n" +
+            "  states.push({present: true, displayed: displayed, enabled: !el.disabled,\n" +
+            "      text: displayed ? (el.innerText || '').trim() : '', attributes: attrs});\n" +
+            "}\n" +
+            "return states;";
+
+    private final Map<By, ElementState> states;
+
+    private ElementSnapshot(Map<By, ElementState> states) {
+        this.states = states;
+    }
+
+    /**
+     * Read the state of all locators. Locators the script can express (css, id, name,
+     * class, tag, xpath) are read in one round-trip; any others are read individually.
+     */
+    @SuppressWarnings("unchecked")
+    public static ElementSnapshot capture(WebDriver driver, List<By> locators, String... attributes) {
+        Map<By, ElementState> states = new LinkedHashMap<>();
+        List<By> scripted = new ArrayList<>();
+        List<List<String>> scriptLocators = new ArrayList<>();
+
+        for (By locator : locators) {
+            String[] scriptLocator = MutationObserverWait.toScriptLocator(locator);
+            if (scriptLocator != null && driver instanceof JavascriptExecutor) {
+                scripted.add(locator);
+                scriptLocators.add(List.of(scriptLocator));
+            }
+            states.put(locator, null); // keep the caller's order
+        }
+
+        if (!scripted.isEmpty()) {
+            List<Map<String, Object>> results = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                    .executeScript(SCRIPT, scriptLocators, List.of(attributes));
+            for (int i = 0; i < scripted.size(); i++) {
+                states.put(scripted.get(i), ElementState.fromScript(results.get(i)));
+            }
+        }
+        for (By locator : locators) {
+            if (states.get(locator) == null) {
+                states.put(locator, ElementState.fromDriver(driver, locator, attributes));
+            }
+        }
+        return new ElementSnapshot(states);
+    }
+
+    public ElementState get(By locator) {
+        ElementState state = states.get(locator);
+        if (state == null) {
+            throw new IllegalArgumentException("Locator was not part of this snapshot: " + locator);
+        }
+        return state;
+    }
+
+    public Map<By, ElementState> asMap() {
+        return Collections.unmodifiableMap(states);
+    }
+
+    public boolean allPresent() {
+        return states.values().stream().allMatch(ElementState::isPresent);
+    }
+
+    public boolean allVisibleAndEnabled() {
+        return states.values().stream().allMatch(ElementState::isVisibleAndEnabled);
+    }
+
+    @Override
+    public String toString() {
+        return "ElementSnapshot" + states;
+    }
+
+    /**
+     * State of one element at the time of the snapshot.
+     */
+    public static class ElementState {
+        private final boolean present;
+        private final boolean displayed;
+        private final boolean enabled;
+        private final String text;
+        private final Map<String, String> attributes;
+
+        private ElementState(boolean present, boolean displayed, boolean enabled, String text, Map<String, String> attributes) {
+            this.present = present;
+            this.displayed = displayed;
+            this.enabled = enabled;
+            this.text = text;
+            this.attributes = attributes;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ElementState fromScript(Map<String, Object> result) {
+            if (!Boolean.TRUE.equals(result.get("present"))) {
+                return new ElementState(false, false, false, null, Collections.emptyMap());
+            }
+            Map<String, String> attributes = new LinkedHashMap<>();
+            ((Map<String, Object>) result.get("attributes")).forEach((name, value) ->
+                    attributes.put(name, value == null ? null : String.valueOf(value)));
+            return new ElementState(true, Boolean.TRUE.equals(result.get("displayed")),
+                    Boolean.TRUE.equals(result.get("enabled")), (String) result.get("text"), attributes);
+        }
+
+        private static ElementState fromDriver(WebDriver driver, By locator, String... attributeNames) {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return new ElementState(false, false, false, null, Collections.emptyMap());
+            }
+            WebElement element = elements.get(0);
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (String name : attributeNames) {
+                attributes.put(name, element.getAttribute(name));
+            }
+            // Trimmed like the script's innerText, so both paths report the same text
+            return new ElementState(true, element.isDisplayed(), element.isEnabled(), element.getText().trim(), attributes);
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public boolean isVisibleAndEnabled() {
+            return present && displayed && enabled;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public String toString() {
+            return present
+                    ? String.format("{displayed=%s, enabled=%s, text='%s', attributes=%s}", displayed, enabled, text, attributes)
+                    : "{absent}";
+        }
+    }
+}
@@ -1,15 +1,226 @@
 package utils;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Excel utility class for reading test data from Excel files
+ * Excel utility class for reading test data from Excel files.
+ * <p>
+ * Sheets are read with POI's streaming XSSF event API (SAX), never as an
+ * XSSFWorkbook, so memory stays flat however many rows the sheet has. The
+ * first row is the header; every following row becomes a
+ * {@code Map<String, String>} keyed by header, the same shape the
+ * data providers use. Rows are parsed on a background thread and handed
+ * over through a small bounded queue as the caller iterates; a caller that stops
+ * before the last row closes the iterator to stop that thread and release the file.
  */
 public class ExcelUtils {
-}
\ No newline at end of file
+
+    private static final int ROW_BUFFER = 64;
+    private static final long HANDOFF_POLL_MILLIS = 200;
+
+    /**
+     * Lazily read rows of a sheet (null = first sheet) as header-keyed maps.
+     */
+    public static CloseableIterator<Map<String, String>> readRows(Path file, String sheetName) {
+        return new RowIterator(file, sheetName);
+    }
+
+    /**
+     * Lazily read rows as TestNG data-provider rows, each {@code {Map<String, String>}}.
+     */
+    public static CloseableIterator<Object[]> dataProviderRows(Path file, String sheetName) {
+        CloseableIterator<Map<String, String>> rows = readRows(file, sheetName);
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Object[] next() {
+                return new Object[]{rows.next()};
+            }
+
+            @Override
+            public void close() {
+                rows.close();
+            }
+        };
+    }
+
+    private static class RowIterator implements CloseableIterator<Map<String, String>> {
+        // Marks the end of the sheet in the hand-off queue
+        private static final Map<String, String> END = Collections.emptyMap();
+
+        private final BlockingQueue<Map<String, String>> queue = new ArrayBlockingQueue<>(ROW_BUFFER);
+        private final Thread reader;
+        private volatile RuntimeException failure;
+        private volatile boolean abandoned;
+        private Map<String, String> next;
+
+        RowIterator(Path file, String sheetName) {
+            reader = new Thread(() -> parse(file, sheetName), "excel-reader-" + file.getFileName());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && abandoned) {
+                return false;
+            }
+            if (next == null) {
+                try {
+                    next = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    abandoned = true;
+                    throw new IllegalStateException("Interrupted while reading Excel rows", e);
+                }
+            }
+            if (next == END) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = next;
+            next = null;
+            return row;
+        }
+
+        /**
+         * Stop the reader thread (within one hand-off poll) and let it close the file.
+         */
+        @Override
+        public void close() {
+            abandoned = true;
+            queue.clear();
+        }
+
+        private void parse(Path file, String sheetName) {
+            try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+                XSSFReader xssf = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                StylesTable styles = xssf.getStylesTable();
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssf.getSheetsData();
+                while (sheets.hasNext()) {
+                    try (InputStream sheet = sheets.next()) {
+                        if (sheetName == null || sheetName.equals(sheets.getSheetName())) {
+                            XMLReader parser = XMLHelper.newXMLReader();
+                            parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings, new RowHandler(),
+                                    new DataFormatter(), false));
+                            parser.parse(new InputSource(sheet));
+                            return;
+                        }
+                    }
+                }
+                throw new IllegalArgumentException("Sheet '" + sheetName + "' not found in " + file);
+            } catch (Abandoned e) {
+                // Caller stopped iterating; nothing to report
+            } catch (RuntimeException e) {
+                failure = e;
+            } catch (Exception e) {
+                failure = new IllegalStateException("Could not read Excel file " + file, e);
+            } finally {
+                try {
+                    handOff(END);
+                } catch (Abandoned e) {
+                    // Nobody is waiting for the end of the sheet
+                }
+            }
+        }
+
+        private void handOff(Map<String, String> row) {
+            try {
+                while (abandoned || !queue.offer(row, HANDOFF_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (abandoned) {
+                        throw new Abandoned();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new Abandoned();
+            }
+        }
+
+        private class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+            private final List<String> headers = new ArrayList<>();
+            private final List<String> values = new ArrayList<>();
+            private boolean headerRow = true;
+
+            @Override
+            public void startRow(int rowNum) {
+                values.clear();
+            }
+
+            @Override
+            public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                int column = new CellReference(cellReference).getCol();
+                while (values.size() < column) {
+                    values.add("");
+                }
+                values.add(formattedValue == null ? "" : formattedValue);
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+                if (headerRow) {
+                    headers.addAll(values);
+                    headerRow = false;
+                    return;
+                }
+                if (values.stream().allMatch(String::isBlank)) {
+                    return;
+                }
+                Map<String, String> row = new LinkedHashMap<>();
+                for (int i = 0; i < headers.size(); i++) {
+                    if (!headers.get(i).isBlank()) {
+                        row.put(headers.get(i), i < values.size() ? values.get(i) : "");
+                    }
+                }
+                handOff(row);
+            }
+        }
+    }
+
+    // Unwinds the SAX parse when the caller has stopped consuming rows
+    private static class Abandoned extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -1,16 +1,43 @@
 package utils;
 
-import com.aventstack.extentreports.ExtentTest;
-
+/**
+ * Per-thread access to the current report test. Report writes are buffered through
+ * {@link ReportEventQueue}, so test threads never block on ExtentReports.
+ */
 public class ExtentTestManager {
-    private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static final ThreadLocal<BufferedExtentTest> test = new ThreadLocal<>();
 
     public static void startTest(String testName) {
-        ExtentTest extentTest = ReportManager.getExtent().createTest(testName);
-        test.set(extentTest);
+        endTest();
+        test.set(new BufferedExtentTest(testName));
+    }
+
+    /**
+     * Mark the current thread's test as finished (also implied by the next startTest).
+     */
+    public static void endTest() {
+        BufferedExtentTest current = test.get();
+        if (current != null) {
+            current.end();
+            test.remove();
+        }
     }
 
-    public static ExtentTest getTest() {
+    public static BufferedExtentTest getTest() {
         return test.get();
     }
+
+    /**
+     * Apply all buffered report events and flush the report.
+     */
+    public static void flush() {
+        ReportEventQueue.flush();
+    }
+
+    /**
+     * Ask the report thread to flush once pending events are applied, without blocking.
+     */
+    public static void requestFlush() {
+        ReportEventQueue.requestFlush();
+    }
 }
@@ -0,0 +1,215 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import utils.AdaptiveWait.ConditionType;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Event-driven wait engine. Instead of polling the driver every 500ms, it injects a
+ * MutationObserver into the page and waits for the condition inside the browser with
+ * a single executeAsyncScript call, returning as soon as the DOM satisfies it.
+ * Locators or conditions the script cannot express fall back to the polling wait.
+ */
+public class MutationObserverWait {
+
+    // Extra script timeout on top of the wait itself, so the browser-side timer fires first
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+
+    // Script timeout already applied per driver, to avoid re-setting it on every wait
+    private static final Map<WebDriver, Duration> scriptTimeouts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final String SCRIPT =
+            "var using = arguments[0], value = arguments[1], kind = arguments[2], arg1 = arguments[3],\n" +
+            "    arg2 = arguments[4], timeout = arguments[5], done = arguments[arguments.length - 1];\n" +
+            "function find() {\n" +
+            "  if (using === 'xpath') {\n" +
+            "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;\n" +
+            "  }\n" +
+            "  return document.querySelector(value);\n" +
+            "}\n" +
+            "function visible(el) {\n" +
+            "  if (!el.isConnected) return false;\n" +
+            "  var style = window.getComputedStyle(el);\n" +
+            "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse') return false;\n" +
+            "  var rect = el.getBoundingClientRect();\n" +
+            "  return rect.width > 0 && rect.height > 0;\n" +
+            "}\n" +
+            "function check() {\n" +
+            "  var el = find();\n" +
+            "  switch (kind) {\n" +
+            "    case 'PRESENT': return el ? {value: el} : null;\n" +
+            "    case 'VISIBLE': return el && visible(el) ? {value: el} : null;\n" +
+            "    case 'CLICKABLE': return el && visible(el) && !el.disabled ? {value: el} : null;\n" +
+            "    case 'INVISIBLE': return !el || !visible(el) ? {value: true} : null;\n" +
+            "    case 'TEXT_PRESENT': return el && (el.innerText || el.textContent || '').indexOf(arg1) >= 0 ? {value: true} : null;\n" +
+            "    case 'ATTRIBUTE_PRESENT': return el && el.getAttribute(arg1) !== null ? {value: true} : null;\n" +
+            "    case 'ATTRIBUTE_CONTAINS': return el && (el.getAttribute(arg1) || '').indexOf(arg2) >= 0 ? {value: true} : null;\n" +
+            "  }\n" +
+            "  return null;\n" +
+            "}\n" +
+            "var result = check();\n" +
+            "if (result) { done(result.value); return; }\n" +
+            "var finished = false, observer, timer, recheck;\n" +
+            "function finish(value) {\n" +
+            "  if (finished) return;\n" +
+            "  finished = true;\n" +
+            "  observer.disconnect(); clearTimeout(timer); clearInterval(recheck);\n" +
+            "  done(value);\n" +
+            "}\n" +
+            "function onChange() { var r = check(); if (r) finish(r.value); }\n" +
+            "observer = new MutationObserver(onChange);\n" +
+            "observer.observe(document.documentElement, {childList: true, subtree: true, attributes: true, characterData: true});\n" +
+            // Layout-only changes (CSS transitions, resizes) produce no mutations; re-check locally at a low rate.
+            "recheck = setInterval(onChange, 250);\n" +
+            "timer = setTimeout(function () { finish(false); }, timeout);\n";
+
+    /**
+     * DOM condition the observer script knows how to evaluate.
+     */
+    public static class Condition {
+        private final By locator;
+        private final String kind;
+        private final ConditionType type;
+        private final String arg1;
+        private final String arg2;
+
+        private Condition(By locator, String kind, ConditionType type, String arg1, String arg2) {
+            this.locator = locator;
+            this.kind = kind;
+            this.type = type;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+        }
+
+        public ConditionType getType() {
+            return type;
+        }
+
+        public static Condition presenceOf(By locator) {
+            return new Condition(locator, "PRESENT", ConditionType.PRESENCE, null, null);
+        }
+
+        public static Condition visibilityOf(By locator) {
+            return new Condition(locator, "VISIBLE", ConditionType.VISIBILITY, null, null);
+        }
+
+        public static Condition clickable(By locator) {
+            return new Condition(locator, "CLICKABLE", ConditionType.CLICKABLE, null, null);
+        }
+
+        public static Condition invisibilityOf(By locator) {
+            return new Condition(locator, "INVISIBLE", ConditionType.INVISIBILITY, null, null);
+        }
+
+        public static Condition textPresent(By locator, String text) {
+            return new Condition(locator, "TEXT_PRESENT", ConditionType.TEXT, text, null);
+        }
+
+        public static Condition attributePresent(By locator, String attribute) {
+            return new Condition(locator, "ATTRIBUTE_PRESENT", ConditionType.ATTRIBUTE, attribute, null);
+        }
+
+        public static Condition attributeContains(By locator, String attribute, String value) {
+            return new Condition(locator, "ATTRIBUTE_CONTAINS", ConditionType.ATTRIBUTE, attribute, value);
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + locator;
+        }
+    }
+
+    /**
+     * Wait for a condition using the given mode. In MUTATION_OBSERVER mode the observer
+     * script is used when it can express the locator; otherwise, or if the script fails
+     * (e.g. the page navigated mid-wait), the polling wait evaluates the fallback condition
+     * for whatever is left of the timeout.
+     *
+     * @return the matched WebElement for presence/visibility/clickable conditions, Boolean.TRUE otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T until(WebDriver driver, WaitMode mode, Duration timeout, Condition condition,
+                              AdaptiveWait pollingWait, ExpectedCondition<T> fallback) {
+        long start = System.nanoTime();
+        if (mode == WaitMode.MUTATION_OBSERVER && supports(driver, condition.locator)) {
+            try {
+                return (T) StepMetrics.time("WaitUtils", "wait " + condition.type.name().toLowerCase(Locale.ROOT), () -> {
+                    // One async script call is the observer's only "poll"
+                    StepMetrics.pollsMade(1);
+                    return await(driver, condition, timeout);
+                });
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                WaitStats.recordObserverFallback(condition.type);
+                // The script already spent part of the timeout; poll for the rest only
+                Duration remaining = timeout.minusNanos(System.nanoTime() - start);
+                return pollingWait.until(condition.type, remaining.isNegative() ? Duration.ZERO : remaining, fallback);
+            }
+        }
+        return pollingWait.until(condition.type, fallback);
+    }
+
+    /**
+     * Whether the observer script can locate elements for this locator.
+     */
+    public static boolean supports(WebDriver driver, By locator) {
+        return driver instanceof JavascriptExecutor && toScriptLocator(locator) != null;
+    }
+
+    /**
+     * Run the observer script once and block until the browser reports the condition met or timed out.
+     */
+    public static Object await(WebDriver driver, Condition condition, Duration timeout) {
+        String[] scriptLocator = toScriptLocator(condition.locator);
+        if (!(driver instanceof JavascriptExecutor) || scriptLocator == null) {
+            throw new IllegalArgumentException("MutationObserver wait does not support " + condition);
+        }
+        ensureScriptTimeout(driver, timeout.plus(SCRIPT_TIMEOUT_MARGIN));
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT,
+                scriptLocator[0], scriptLocator[1], condition.kind, condition.arg1, condition.arg2, timeout.toMillis());
+        if (Boolean.FALSE.equals(result) || result == null) {
+            throw new TimeoutException("Expected condition failed: waiting for " + condition
+                    + " (observed for " + timeout.toMillis() + "ms)");
+        }
+        return result;
+    }
+
+    /**
+     * Translate a locator into the script's {using, value} pair: "css" or "xpath", or null if unsupported.
+     */
+    static String[] toScriptLocator(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        switch (parameters.using()) {
+            case "css selector":
+            case "tag name":
+                return new String[]{"css", value};
+            case "xpath":
+                return new String[]{"xpath", value};
+            default:
+                return null;
+        }
+    }
+
+    private static void ensureScriptTimeout(WebDriver driver, Duration required) {
+        Duration current = scriptTimeouts.get(driver);
+        if (current == null || current.compareTo(required) < 0) {
+            driver.manage().timeouts().scriptTimeout(required);
+            scriptTimeouts.put(driver, required);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Browser network policy over the Chrome DevTools Protocol (Chrome and Edge).
+ * URLs matching web.network.block.patterns (CDP wildcards, e.g. *googletagmanager.com*)
+ * are blocked by the browser itself; with web.network.cache.enabled, responses
+ * matching web.network.cache.patterns are stored under web.network.cache.dir on
+ * first load and served from there afterwards without touching the network.
+ * <p>
+ * Commands and events are sent by name rather than through a versioned devtools
+ * module, so the policy works whatever Chrome version the session runs. Usage is
+ * counted per session; a session is leased to one test at a time, so
+ * {@link #beginTest}/{@link #endTest} around a test give its own numbers. Bytes
+ * saved are the bytes served from the cache plus, for blocked URLs, the size last
+ * seen when that URL did load (unknown sizes count as 0).
+ */
+public class NetworkPolicy {
+
+    private static final boolean BLOCK_ENABLED = ConfigReader.getBoolean("web.network.block.enabled", false);
+    private static final boolean CACHE_ENABLED = ConfigReader.getBoolean("web.network.cache.enabled", false);
+    private static final List<String> BLOCK_PATTERNS = patterns("web.network.block.patterns");
+    private static final List<String> CACHE_PATTERNS = patterns("web.network.cache.patterns");
+    private static final Path CACHE_DIR = Paths.get(ConfigReader.get("web.network.cache.dir", "target/asset-cache"));
+
+    // Encoded size of every URL seen loading, to estimate what blocking it saved
+    private static final Map<String, Long> knownSizes = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, Usage> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Usage total = new Usage();
+
+    public static boolean isEnabled() {
+        return BLOCK_ENABLED || CACHE_ENABLED;
+    }
+
+    /**
+     * Apply the configured policy to a new session. Only Chromium drivers speak
+     * CDP; others (Firefox, which has DevTools over BiDi but no CDP domains) are
+     * left as they are.
+     */
+    public static void install(WebDriver driver) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (!(driver instanceof HasCdp) || !(driver instanceof HasDevTools)) {
+            System.out.println("Network policy needs Chrome DevTools; not applied to " + driver.getClass().getSimpleName());
+            return;
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        Usage usage = new Usage();
+        sessions.put(driver, usage);
+
+        devTools.addListener(event("Network.requestWillBeSent"), params -> {
+            Map<?, ?> request = (Map<?, ?>) params.get("request");
+            usage.urls.put((String) params.get("requestId"), (String) request.get("url"));
+        });
+        devTools.addListener(event("Network.loadingFinished"), params -> {
+            String requestId = (String) params.get("requestId");
+            String url = usage.urls.remove(requestId);
+            long bytes = ((Number) params.get("encodedDataLength")).longValue();
+            if (usage.fulfilled.remove(requestId) || url == null) {
+                return;
+            }
+            knownSizes.put(url, bytes);
+            usage.add(usage.transferredBytes, total.transferredBytes, bytes);
+        });
+        devTools.addListener(event("Network.loadingFailed"), params -> {
+            String url = usage.urls.remove((String) params.get("requestId"));
+            // "inspector" is the reason Chrome gives for URLs blocked through setBlockedURLs
+            if ("inspector".equals(params.get("blockedReason"))) {
+                usage.add(usage.blockedRequests, total.blockedRequests, 1);
+                usage.add(usage.blockedBytes, total.blockedBytes, url == null ? 0 : knownSizes.getOrDefault(url, 0L));
+            }
+        });
+        devTools.send(command("Network.enable", Map.of()));
+        if (BLOCK_ENABLED && !BLOCK_PATTERNS.isEmpty()) {
+            devTools.send(command("Network.setBlockedURLs", Map.of("urls", BLOCK_PATTERNS)));
+        }
+        if (CACHE_ENABLED && !CACHE_PATTERNS.isEmpty()) {
+            installCache(devTools, usage);
+        }
+    }
+
+    /**
+     * Start counting a test's usage on the session it was leased.
+     */
+    public static void beginTest(WebDriver driver) {
+        Usage usage = sessions.get(driver);
+        if (usage != null) {
+            usage.reset();
+        }
+    }
+
+    /**
+     * One line describing what the policy saved during the test, or null if the
+     * session has no policy.
+     */
+    public static String endTest(WebDriver driver) {
+        Usage usage = sessions.get(driver);
+        return usage == null ? null : "Network policy: " + usage.describe();
+    }
+
+    /**
+     * Totals for all sessions since the run started.
+     */
+    public static String summary() {
+        return "Network policy totals: " + total.describe();
+    }
+
+    private static void installCache(DevTools devTools, Usage usage) {
+        try {
+            Files.createDirectories(CACHE_DIR);
+        } catch (IOException e) {
+            System.out.println("Asset cache disabled, cannot create " + CACHE_DIR + ": " + e.getMessage());
+            return;
+        }
+        List<Map<String, Object>> fetchPatterns = new ArrayList<>();
+        for (String pattern : CACHE_PATTERNS) {
+            fetchPatterns.add(Map.of("urlPattern", pattern, "requestStage", "Request"));
+            fetchPatterns.add(Map.of("urlPattern", pattern, "requestStage", "Response"));
+        }
+        devTools.addListener(event("Fetch.requestPaused"), params -> {
+            String requestId = (String) params.get("requestId");
+            Map<?, ?> request = (Map<?, ?>) params.get("request");
+            String url = (String) request.get("url");
+            Object status = params.get("responseStatusCode");
+            try {
+                if (status == null) {
+                    Path body = cacheFile(url, ".body");
+                    if ("GET".equals(request.get("method")) && Files.exists(body)) {
+                        byte[] bytes = Files.readAllBytes(body);
+                        String type = new String(Files.readAllBytes(cacheFile(url, ".type")), StandardCharsets.UTF_8);
+                        // Registered first: loadingFinished for it may arrive before send() returns
+                        Object networkId = params.get("networkId");
+                        if (networkId != null) {
+                            usage.fulfilled.add((String) networkId);
+                        }
+                        devTools.send(command("Fetch.fulfillRequest", Map.of(
+                                "requestId", requestId,
+                                "responseCode", 200,
+                                "responseHeaders", List.of(Map.of("name", "Content-Type", "value", type)),
+                                "body", Base64.getEncoder().encodeToString(bytes))));
+                        usage.add(usage.cachedRequests, total.cachedRequests, 1);
+                        usage.add(usage.cachedBytes, total.cachedBytes, bytes.length);
+                        return;
+                    }
+                } else if (((Number) status).intValue() == 200 && "GET".equals(request.get("method"))) {
+                    store(devTools, requestId, url, params.get("responseHeaders"));
+                }
+            } catch (RuntimeException | IOException e) {
+                // A cache problem must never stall the page; let the request through
+                System.out.println("Asset cache skipped " + url + ": " + e.getMessage());
+            }
+            devTools.send(command("Fetch.continueRequest", Map.of("requestId", requestId)));
+        });
+        devTools.send(command("Fetch.enable", Map.of("patterns", fetchPatterns)));
+    }
+
+    private static void store(DevTools devTools, String requestId, String url, Object headers) throws IOException {
+        Map<String, Object> response = devTools.send(new Command<>("Fetch.getResponseBody",
+                Map.of("requestId", requestId), Json.MAP_TYPE));
+        String body = (String) response.get("body");
+        byte[] bytes = Boolean.TRUE.equals(response.get("base64Encoded"))
+                ? Base64.getDecoder().decode(body)
+                : body.getBytes(StandardCharsets.UTF_8);
+        String type = "application/octet-stream";
+        if (headers instanceof List) {
+            for (Object header : (List<?>) headers) {
+                Map<?, ?> entry = (Map<?, ?>) header;
+                if ("content-type".equalsIgnoreCase((String) entry.get("name"))) {
+                    type = (String) entry.get("value");
+                }
+            }
+        }
+        // Type first, and the body moved into place whole, so other sessions never read a partial entry
+        Files.write(cacheFile(url, ".type"), type.getBytes(StandardCharsets.UTF_8));
+        Path temp = Files.createTempFile(CACHE_DIR, "asset", ".tmp");
+        Files.write(temp, bytes);
+        Files.move(temp, cacheFile(url, ".body"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Path cacheFile(String url, String suffix) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return CACHE_DIR.resolve(hex + suffix);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static List<String> patterns(String key) {
+        return Arrays.stream(ConfigReader.get(key, "").split(","))
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static Event<Map<String, Object>> event(String name) {
+        return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static Command<Void> command(String name, Map<String, Object> params) {
+        return new Command<>(name, params);
+    }
+
+    private static class Usage {
+        private final LongAdder blockedRequests = new LongAdder();
+        private final LongAdder blockedBytes = new LongAdder();
+        private final LongAdder cachedRequests = new LongAdder();
+        private final LongAdder cachedBytes = new LongAdder();
+        private final LongAdder transferredBytes = new LongAdder();
+        // In-flight request id -> URL, and network ids answered from the cache
+        private final Map<String, String> urls = new ConcurrentHashMap<>();
+        private final Set<String> fulfilled = ConcurrentHashMap.newKeySet();
+
+        void add(LongAdder counter, LongAdder totalCounter, long amount) {
+            counter.add(amount);
+            totalCounter.add(amount);
+        }
+
+        void reset() {
+            blockedRequests.reset();
+            blockedBytes.reset();
+            cachedRequests.reset();
+            cachedBytes.reset();
+            transferredBytes.reset();
+        }
+
+        String describe() {
+            return String.format("blocked=%d (~%d KB), cached=%d (%d KB), saved=%d requests / ~%d KB, transferred=%d KB",
+                    blockedRequests.sum(), blockedBytes.sum() / 1024, cachedRequests.sum(), cachedBytes.sum() / 1024,
+                    blockedRequests.sum() + cachedRequests.sum(), (blockedBytes.sum() + cachedBytes.sum()) / 1024,
+                    transferredBytes.sum() / 1024);
+        }
+    }
+}
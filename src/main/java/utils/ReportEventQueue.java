@@ -0,0 +1,134 @@
+package utils;
+
+import com.aventstack.extentreports.ExtentReports;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Multi-producer, single-consumer queue in front of ExtentReports. Test threads
+ * only append events to a lock-free queue; one daemon thread applies them to
+ * ExtentReports (and the report shard, if enabled) in order, so test threads
+ * never contend on report structures.
+ * <p>
+ * Rendering the Extent HTML is a full re-render, so flushes are coalesced: a
+ * flush with nothing new since the last one is skipped, and with
+ * report.flush.intervalSeconds &gt; 0 the report thread re-renders in the
+ * background while idle so long suites show live progress.
+ */
+public class ReportEventQueue {
+
+    private static final ConcurrentLinkedQueue<Runnable> events = new ConcurrentLinkedQueue<>();
+    private static final long FLUSH_INTERVAL_NANOS =
+            TimeUnit.SECONDS.toNanos(ConfigReader.getInt("report.flush.intervalSeconds", 0));
+    private static final Thread consumer = new Thread(ReportEventQueue::drainLoop, "extent-report-writer");
+
+    static {
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    // Report-thread state: events applied since the last render, and when that was
+    private static boolean dirty;
+    private static long lastFlush = System.nanoTime();
+
+    /**
+     * Queue an event to be applied to ExtentReports on the report thread.
+     */
+    public static void submit(Consumer<ExtentReports> event) {
+        execute(() -> {
+            dirty = true;
+            event.accept(ReportManager.getReporter());
+        });
+    }
+
+    /**
+     * Queue a task to run on the report thread, in order with the other events.
+     */
+    public static void execute(Runnable task) {
+        events.offer(task);
+        LockSupport.unpark(consumer);
+    }
+
+    /**
+     * Apply every queued event, then flush the report. Blocks until done.
+     */
+    public static void flush() {
+        await(ReportEventQueue::render);
+    }
+
+    /**
+     * Queue a flush behind the pending events without waiting for it.
+     */
+    public static void requestFlush() {
+        execute(ReportEventQueue::render);
+    }
+
+    /**
+     * Block until every event queued so far has been applied, without flushing.
+     */
+    public static void drain() {
+        await(() -> { });
+    }
+
+    private static void await(Runnable barrier) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                barrier.run();
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        });
+        try {
+            done.get(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to apply buffered Extent report events", e);
+        }
+    }
+
+    private static void render() {
+        if (dirty && ReportShardWriter.isExtentEnabled()) {
+            ReportManager.getReporter().flush();
+        }
+        ReportShardWriter.flush();
+        dirty = false;
+        lastFlush = System.nanoTime();
+    }
+
+    private static void drainLoop() {
+        while (true) {
+            Runnable event = events.poll();
+            if (event == null) {
+                if (FLUSH_INTERVAL_NANOS > 0 && dirty && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    renderQuietly();
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+            try {
+                event.run();
+            } catch (RuntimeException e) {
+                System.out.println("Failed to record report event: " + e);
+            }
+        }
+    }
+
+    private static void renderQuietly() {
+        try {
+            render();
+        } catch (RuntimeException e) {
+            dirty = false;
+            lastFlush = System.nanoTime();
+            System.out.println("Failed to flush report: " + e);
+        }
+    }
+}
@@ -5,32 +5,48 @@ import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 
 import java.io.File;
 
+/**
+ * Lazily created, safely published ExtentReports singleton. Rendering happens on
+ * the {@link ReportEventQueue} thread; see there for flush coalescing.
+ */
 public class ReportManager {
-    private static ExtentReports extent;
+    private static volatile ExtentReports extent;
 
     public static ExtentReports getReporter() {
-        if (extent == null) {
-            // Create folder for reports
-            String reportFolder = System.getProperty("user.dir") + File.separator + "reports";
-            new File(reportFolder).mkdirs();
-
-            // Create spark reporter with file path inside the folder
-            String reportPath = reportFolder + File.separator + "extent-report.html";
-            ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
-
-            // Configurations
-            spark.config().setReportName("Web Automation Report");
-            spark.config().setDocumentTitle("Test Execution Results");
-
-            // Extent object
-            extent = new ExtentReports();
-            extent.attachReporter(spark);
-            extent.setSystemInfo("Tester", "Soundarya");
+        ExtentReports reporter = extent;
+        if (reporter == null) {
+            synchronized (ReportManager.class) {
+                reporter = extent;
+                if (reporter == null) {
+                    reporter = createReporter();
+                    extent = reporter;
+                }
+            }
         }
-        return extent;
+        return reporter;
     }
 
     public static ExtentReports getExtent() {
         return extent;
     }
+
+    private static ExtentReports createReporter() {
+        // Create folder for reports
+        String reportFolder = System.getProperty("user.dir") + File.separator + "reports";
+        new File(reportFolder).mkdirs();
+
+        // Create spark reporter with file path inside the folder
+        String reportPath = reportFolder + File.separator + "extent-report.html";
+        ExtentSparkReporter spark = new ExtentSparkReporter(reportPath);
+
+        // Configurations
+        spark.config().setReportName("Web Automation Report");
+        spark.config().setDocumentTitle("Test Execution Results");
+
+        // Extent object
+        ExtentReports reporter = new ExtentReports();
+        reporter.attachReporter(spark);
+        reporter.setSystemInfo("Tester", "Soundarya");
+        return reporter;
+    }
 }
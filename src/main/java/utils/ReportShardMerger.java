@@ -0,0 +1,214 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Combines the JSON-lines shards written by {@link ReportShardWriter} into one
+ * merged-report.html and merged-report.json. Shards are read one line at a time
+ * and a test is written out as soon as its end event is seen, so memory use is
+ * bounded by the tests still open, not by the size of the run.
+ * <p>
+ * Run with: mvn compile exec:java -Dexec.mainClass=utils.ReportShardMerger -Dexec.args="reports/shards reports/merged"
+ */
+public class ReportShardMerger {
+
+    // Worst first: a test's overall status is the worst status it logged
+    private static final List<String> STATUS_ORDER = List.of("fail", "skip", "warning", "pass", "info");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, Integer> totals = new TreeMap<>();
+    private BufferedWriter html;
+    private JsonGenerator json;
+    private int tests;
+
+    public static void main(String[] args) throws IOException {
+        Path input = Paths.get(args.length > 0 ? args[0] : "reports/shards");
+        Path output = Paths.get(args.length > 1 ? args[1] : "reports/merged");
+        new ReportShardMerger().merge(input, output);
+    }
+
+    public void merge(Path shardDir, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Path htmlPath = outputDir.resolve("merged-report.html");
+        Path jsonPath = outputDir.resolve("merged-report.json");
+        try (BufferedWriter htmlWriter = Files.newBufferedWriter(htmlPath, StandardCharsets.UTF_8);
+             JsonGenerator generator = mapper.getFactory().createGenerator(jsonPath.toFile(), JsonEncoding.UTF8)) {
+            html = htmlWriter;
+            json = generator;
+            writeHeader();
+            for (Path shard : listShards(shardDir)) {
+                mergeShard(shard);
+            }
+            writeFooter();
+        }
+        System.out.println("Merged " + tests + " tests " + totals + " into " + htmlPath + " and " + jsonPath);
+    }
+
+    // Sorted by name, so the merged report lists shards in the same order every time
+    private static List<Path> listShards(Path shardDir) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(shardDir, "*.jsonl")) {
+            stream.forEach(shards::add);
+        }
+        Collections.sort(shards);
+        return shards;
+    }
+
+    private void mergeShard(Path shard) throws IOException {
+        Map<String, MergedTest> open = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode event = mapper.readTree(line);
+                String id = event.path("test").asText();
+                switch (event.path("event").asText()) {
+                    case "start":
+                        open.put(id, new MergedTest(id, event.path("name").asText(), event.path("thread").asText(),
+                                event.path("time").asLong()));
+                        break;
+                    case "log":
+                        MergedTest logged = open.get(id);
+                        if (logged != null) {
+                            logged.log(event.path("status").asText(), event.path("details").asText(),
+                                    event.path("time").asLong());
+                        }
+                        break;
+                    case "screenshot":
+                        MergedTest captured = open.get(id);
+                        if (captured != null) {
+                            captured.screenshots.add(event.path("path").asText());
+                        }
+                        break;
+                    case "end":
+                        MergedTest ended = open.remove(id);
+                        if (ended != null) {
+                            ended.end = event.path("time").asLong();
+                            write(ended);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        // Tests still open when the shard ended (e.g. the last test of a fork)
+        for (MergedTest test : open.values()) {
+            write(test);
+        }
+    }
+
+    private void write(MergedTest test) throws IOException {
+        tests++;
+        totals.merge(test.status, 1, Integer::sum);
+
+        json.writeStartObject();
+        json.writeStringField("id", test.id);
+        json.writeStringField("name", test.name);
+        json.writeStringField("thread", test.thread);
+        json.writeStringField("status", test.status);
+        json.writeNumberField("start", test.start);
+        json.writeNumberField("end", test.end);
+        json.writeArrayFieldStart("logs");
+        for (String[] log : test.logs) {
+            json.writeStartObject();
+            json.writeStringField("status", log[0]);
+            json.writeStringField("details", log[1]);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("screenshots");
+        for (String path : test.screenshots) {
+            json.writeString(path);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+
+        html.write("<details class=\"" + test.status + "\"><summary><b>" + escape(test.status.toUpperCase()) + "</b> "
+                + escape(test.name) + " <small>" + escape(test.thread) + " &middot; "
+                + Math.max(0, test.end - test.start) + " ms</small></summary><ul>");
+        for (String[] log : test.logs) {
+            html.write("<li class=\"" + escape(log[0]) + "\">" + escape(log[0]) + ": " + escape(log[1]) + "</li>");
+        }
+        for (String path : test.screenshots) {
+            html.write("<li><a href=\"" + escape(path) + "\">screenshot</a></li>");
+        }
+        html.write("</ul></details>");
+        html.newLine();
+    }
+
+    private void writeHeader() throws IOException {
+        json.writeStartObject();
+        json.writeArrayFieldStart("tests");
+        html.write("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Test Execution Results</title><style>"
+                + "body{font-family:sans-serif}details{margin:2px 0}.fail{color:#c0392b}.skip{color:#d68910}"
+                + ".warning{color:#b7950b}.pass{color:#1e8449}</style></head><body><h1>Web Automation Report</h1>");
+        html.newLine();
+    }
+
+    private void writeFooter() throws IOException {
+        json.writeEndArray();
+        json.writeNumberField("total", tests);
+        json.writeObjectFieldStart("statuses");
+        for (Map.Entry<String, Integer> entry : totals.entrySet()) {
+            json.writeNumberField(entry.getKey(), entry.getValue());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+        html.write("<hr><p>Total: " + tests + " " + escape(totals.toString()) + "</p></body></html>");
+        html.newLine();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static class MergedTest {
+        final String id;
+        final String name;
+        final String thread;
+        final long start;
+        long end;
+        String status = "info";
+        final List<String[]> logs = new ArrayList<>();
+        final List<String> screenshots = new ArrayList<>();
+
+        MergedTest(String id, String name, String thread, long start) {
+            this.id = id;
+            this.name = name;
+            this.thread = thread;
+            this.start = start;
+            this.end = start;
+        }
+
+        void log(String logStatus, String details, long time) {
+            String normalized = logStatus.toLowerCase();
+            logs.add(new String[]{normalized, details});
+            end = time;
+            int rank = STATUS_ORDER.indexOf(normalized);
+            if (rank >= 0 && rank < STATUS_ORDER.indexOf(status)) {
+                status = normalized;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams report events of this JVM to an append-only JSON-lines shard file
+ * (reports/shards/shard-&lt;id&gt;.jsonl) instead of holding the test tree in memory.
+ * Shards from several forks or machines are combined by {@link ReportShardMerger}.
+ * The shard is truncated when a run first writes to it, so re-running with the
+ * same report.shard.id (as CI agents do) replaces the previous run's events.
+ * Without report.shard.id every run gets a new pid@host shard, so the first write
+ * also deletes shards left by earlier runs (files last written before this JVM
+ * started); shards of forks running alongside are kept.
+ * <p>
+ * Only called from the {@link ReportEventQueue} thread, so it needs no locking.
+ * Each line is one event: start, log, screenshot or end of a test.
+ */
+public class ReportShardWriter {
+
+    // Report output: "extent" (single in-memory Extent report), "shards" or "both"
+    private static final String OUTPUT = ConfigReader.get("report.output", "extent").trim().toLowerCase();
+    private static final Path SHARD_DIR = Paths.get(System.getProperty("user.dir"), "reports", "shards");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static BufferedWriter writer;
+
+    public static boolean isEnabled() {
+        return OUTPUT.equals("shards") || OUTPUT.equals("both");
+    }
+
+    public static boolean isExtentEnabled() {
+        return !OUTPUT.equals("shards");
+    }
+
+    /**
+     * Shard id from report.shard.id (config or -D), defaulting to this JVM's pid@host.
+     */
+    public static String getShardId() {
+        if (hasConfiguredShardId()) {
+            return ConfigReader.get("report.shard.id");
+        }
+        return ManagementFactory.getRuntimeMXBean().getName().replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+
+    private static boolean hasConfiguredShardId() {
+        String configured = ConfigReader.get("report.shard.id");
+        return configured != null && !configured.isEmpty();
+    }
+
+    public static void start(String testId, String name, String thread) {
+        Map<String, Object> event = event("start", testId);
+        event.put("name", name);
+        event.put("thread", thread);
+        append(event);
+    }
+
+    public static void log(String testId, String status, String details) {
+        Map<String, Object> event = event("log", testId);
+        event.put("status", status);
+        event.put("details", details);
+        append(event);
+    }
+
+    public static void screenshot(String testId, String path) {
+        Map<String, Object> event = event("screenshot", testId);
+        event.put("path", path);
+        append(event);
+    }
+
+    public static void end(String testId) {
+        append(event("end", testId));
+    }
+
+    /**
+     * Push buffered lines to disk.
+     */
+    public static void flush() {
+        if (writer != null) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                System.out.println("Failed to flush report shard: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Object> event(String type, String testId) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("event", type);
+        event.put("test", testId);
+        event.put("time", System.currentTimeMillis());
+        return event;
+    }
+
+    private static void append(Map<String, Object> event) {
+        try {
+            if (writer == null) {
+                Files.createDirectories(SHARD_DIR);
+                if (!hasConfiguredShardId()) {
+                    deleteEarlierRuns();
+                }
+                Path shard = SHARD_DIR.resolve("shard-" + getShardId() + ".jsonl");
+                writer = Files.newBufferedWriter(shard, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                System.out.println("Writing report shard: " + shard);
+            }
+            writer.write(mapper.writeValueAsString(event));
+            writer.newLine();
+        } catch (IOException e) {
+            System.out.println("Failed to write report shard event: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete shards not written since this JVM started, so the merger only sees this run.
+     */
+    private static void deleteEarlierRuns() throws IOException {
+        FileTime jvmStart = FileTime.fromMillis(ManagementFactory.getRuntimeMXBean().getStartTime());
+        try (DirectoryStream<Path> shards = Files.newDirectoryStream(SHARD_DIR, "*.jsonl")) {
+            for (Path shard : shards) {
+                if (Files.getLastModifiedTime(shard).compareTo(jvmStart) < 0) {
+                    Files.deleteIfExists(shard);
+                }
+            }
+        }
+    }
+}
@@ -4,30 +4,356 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import java.io.File;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Screenshot capture that keeps disk I/O off the test thread. The test thread only
+ * grabs the PNG bytes from the driver and reserves a file path; a bounded writer
+ * pool writes the file with NIO channels. When the queued bytes are over budget the
+ * configured backpressure policy applies: "downscale" shrinks the image (dropping
+ * it if that still doesn't fit), "drop" skips the write. When the queue is out of
+ * slots the capture is dropped straight away, since shrinking it would not help.
+ * <p>
+ * Optionally screenshots are re-encoded as JPEG (quality and max width configurable)
+ * and content-addressed by SHA-256, so identical captures - typically from retried
+ * tests - are stored once and every caller gets the same path.
+ */
 public class ScreenshotUtil {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmssSSS");
+    private static final Path SCREENSHOT_DIR = Paths.get(System.getProperty("user.dir"), "screenshots");
+
+    private static final int WRITER_THREADS = ConfigReader.getInt("screenshot.writer.threads", 1);
+    private static final int QUEUE_CAPACITY = ConfigReader.getInt("screenshot.queue.capacity", 32);
+    private static final long MAX_QUEUED_BYTES = ConfigReader.getInt("screenshot.queue.maxMegabytes", 64) * 1024L * 1024L;
+    private static final String BACKPRESSURE_POLICY = ConfigReader.get("screenshot.queue.policy", "downscale");
+
+    // Storage mode: "png" keeps the driver's bytes as-is, "jpeg" re-encodes with the quality below
+    private static final boolean JPEG = "jpeg".equalsIgnoreCase(ConfigReader.get("screenshot.storage", "png"));
+    private static final float JPEG_QUALITY = (float) ConfigReader.getDouble("screenshot.jpeg.quality", 0.75);
+    private static final int MAX_WIDTH = ConfigReader.getInt("screenshot.maxWidth", 0);
+    private static final boolean DEDUPLICATE = ConfigReader.getBoolean("screenshot.dedup", false);
+
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(
+            WRITER_THREADS, WRITER_THREADS, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private static final AtomicLong queuedBytes = new AtomicLong();
+    // Writes queued or running; awaitPendingWrites waits on the lock for this to reach 0
+    private static final AtomicInteger pendingWrites = new AtomicInteger();
+    private static final Object drainLock = new Object();
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final AtomicLong dropped = new AtomicLong();
+    private static final AtomicLong downscaled = new AtomicLong();
+
+    // Content hash -> pending or completed write, for de-duplication
+    private static final Map<String, CompletableFuture<Path>> storedByHash = new ConcurrentHashMap<>();
+    private static final AtomicLong capturedBytes = new AtomicLong();
+    private static final AtomicLong storedBytes = new AtomicLong();
+    private static final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * A screenshot whose file path is known immediately while the write completes in the background.
+     */
+    public static class PendingScreenshot {
+        private final Path path;
+        private final CompletableFuture<Path> written;
+
+        private PendingScreenshot(Path path, CompletableFuture<Path> written) {
+            this.path = path;
+            this.written = written;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Completes with the path once the file is on disk, or with null if the capture was dropped.
+         */
+        public CompletableFuture<Path> getWritten() {
+            return written;
+        }
+    }
+
+    /**
+     * Capture a screenshot of the current thread's driver and return the path it will be written to,
+     * or null if the capture was dropped under backpressure.
+     */
     public static String takeScreenshot(String testName) {
-        WebDriver driver = DriverFactory.getDriver();;// Thread-safe access
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmssSSS").format(new Date());
-        String screenshotName = testName + "_" + timestamp + ".png";
-        String screenshotPath = System.getProperty("user.dir") + "/screenshots/" + screenshotName;
+        PendingScreenshot screenshot = captureAsync(testName);
+        CompletableFuture<Path> written = screenshot.getWritten();
+        if (written.isDone() && !written.isCompletedExceptionally() && written.getNow(null) == null) {
+            return null; // Drops complete right away with null
+        }
+        return screenshot.getPath().toString();
+    }
+
+    /**
+     * Capture the screenshot bytes on the calling thread and queue the file write.
+     */
+    public static PendingScreenshot captureAsync(String testName) {
+        WebDriver driver = DriverFactory.getDriver(); // Thread-safe access
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        capturedBytes.addAndGet(png.length);
+        String extension = JPEG ? ".jpg" : ".png";
+
+        if (DEDUPLICATE) {
+            String hash = sha256(png);
+            Path path = SCREENSHOT_DIR.resolve(hash + extension);
+            // Claim the hash first so the write is queued outside the map's lock
+            CompletableFuture<Path> written = new CompletableFuture<>();
+            CompletableFuture<Path> existing = storedByHash.putIfAbsent(hash, written);
+            if (existing != null) {
+                duplicates.incrementAndGet();
+                return new PendingScreenshot(path, existing);
+            }
+            submit(path, png).whenComplete((stored, error) -> {
+                if (error != null) {
+                    written.completeExceptionally(error);
+                } else {
+                    if (stored == null) {
+                        storedByHash.remove(hash, written); // dropped under backpressure, let a later capture store it
+                    }
+                    written.complete(stored);
+                }
+            });
+            return new PendingScreenshot(path, written);
+        }
+
+        String screenshotName = testName + "_" + LocalDateTime.now().format(TIMESTAMP)
+                + "_" + sequence.incrementAndGet() + extension;
+        Path path = SCREENSHOT_DIR.resolve(screenshotName);
+        return new PendingScreenshot(path, submit(path, png));
+    }
+
+    /**
+     * Bytes captured from the driver minus bytes written to disk (re-encoding and duplicates).
+     */
+    public static long getBytesSaved() {
+        return capturedBytes.get() - storedBytes.get();
+    }
+
+    /**
+     * Wait for queued screenshots to reach disk (call at the end of a suite). The
+     * writer keeps running, so later suites in the same JVM still get screenshots.
+     */
+    public static void awaitPendingWrites(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (drainLock) {
+            try {
+                long remaining;
+                while (pendingWrites.get() > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(drainLock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (pendingWrites.get() > 0) {
+            System.out.println("Screenshot writer did not finish within " + timeout.getSeconds() + "s");
+        }
+        if (dropped.get() > 0 || downscaled.get() > 0) {
+            System.out.println("Screenshots dropped: " + dropped.get() + ", downscaled: " + downscaled.get());
+        }
+        if (capturedBytes.get() > 0) {
+            System.out.printf("Screenshots: captured %d bytes, stored %d bytes, saved %d bytes (%d duplicates)%n",
+                    capturedBytes.get(), storedBytes.get(), getBytesSaved(), duplicates.get());
+        }
+    }
+
+    private static CompletableFuture<Path> submit(Path path, byte[] png) {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        Rejection rejection = enqueue(path, png, future);
+        if (rejection == Rejection.BYTES && "downscale".equalsIgnoreCase(BACKPRESSURE_POLICY)) {
+            // Only the byte budget is helped by a smaller image; a full queue would reject it again
+            byte[] smaller = downscale(png);
+            if (smaller != null) {
+                rejection = enqueue(path, smaller, future);
+                if (rejection == null) {
+                    downscaled.incrementAndGet();
+                }
+            }
+        }
+        if (rejection != null) {
+            dropped.incrementAndGet();
+            capturedBytes.addAndGet(-png.length);
+            System.out.println("Screenshot " + (rejection == Rejection.QUEUE ? "queue full" : "bytes over budget")
+                    + ", dropping " + path.getFileName());
+            return CompletableFuture.completedFuture(null);
+        }
+        return future;
+    }
 
-        File srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-        File destFile = new File(screenshotPath);
+    /**
+     * Why a write was not queued.
+     */
+    private enum Rejection {
+        // Queued bytes would exceed screenshot.queue.maxMegabytes
+        BYTES,
+        // All screenshot.queue.capacity slots are taken
+        QUEUE
+    }
 
+    /**
+     * Queue the write to complete the given future, or return why it was not queued.
+     */
+    private static Rejection enqueue(Path path, byte[] png, CompletableFuture<Path> future) {
+        if (queuedBytes.addAndGet(png.length) > MAX_QUEUED_BYTES) {
+            queuedBytes.addAndGet(-png.length);
+            return Rejection.BYTES;
+        }
+        pendingWrites.incrementAndGet();
         try {
-            Files.createDirectories(destFile.getParentFile().toPath());
-            Files.copy(srcFile.toPath(), destFile.toPath());
-        } catch (IOException e) {
-            e.printStackTrace();
+            writer.execute(() -> {
+                try {
+                    byte[] encoded = encode(png);
+                    write(path, encoded);
+                    storedBytes.addAndGet(encoded.length);
+                    future.complete(path);
+                } catch (IOException e) {
+                    System.out.println("Failed to write screenshot " + path + ": " + e.getMessage());
+                    future.completeExceptionally(e);
+                } finally {
+                    queuedBytes.addAndGet(-png.length);
+                    writeFinished();
+                }
+            });
+            return null;
+        } catch (RejectedExecutionException e) {
+            queuedBytes.addAndGet(-png.length);
+            writeFinished();
+            return Rejection.QUEUE;
         }
+    }
+
+    private static void writeFinished() {
+        if (pendingWrites.decrementAndGet() == 0) {
+            synchronized (drainLock) {
+                drainLock.notifyAll();
+            }
+        }
+    }
+
+    private static void write(Path path, byte[] png) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(png);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
 
-        return screenshotPath;
+    /**
+     * Apply the storage mode: the original PNG, or a JPEG scaled down to the max width.
+     */
+    private static byte[] encode(byte[] png) throws IOException {
+        if (!JPEG) {
+            return png;
+        }
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (MAX_WIDTH > 0 && width > MAX_WIDTH) {
+            height = Math.max(1, height * MAX_WIDTH / width);
+            width = MAX_WIDTH;
+        }
+        // JPEG has no alpha channel, so always draw onto an RGB canvas
+        BufferedImage rgb = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            jpegWriter.setOutput(imageOut);
+            jpegWriter.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            jpegWriter.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Re-encode the PNG at half width and height, or return null if it can't be decoded.
+     */
+    private static byte[] downscale(byte[] png) {
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+            if (source == null) {
+                return null;
+            }
+            int width = Math.max(1, source.getWidth() / 2);
+            int height = Math.max(1, source.getHeight() / 2);
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+            graphics.dispose();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
     }
 
 }
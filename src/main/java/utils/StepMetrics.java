@@ -0,0 +1,332 @@
+package utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openqa.selenium.remote.http.Filter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Per-step latency instrumentation for page objects and waits. A step is one
+ * page-object action (safeClick, safeSendKeys, a wait...) and records its wall
+ * time, the WebDriver commands it issued (counted by an HTTP filter on the
+ * driver's client, see {@link #commandCounter()}) and the wait polls it made.
+ * Only the outermost step on a thread is recorded, so the wait inside a
+ * safeClick counts towards the safeClick. WebDriver commands a test issues
+ * outside any step (e.g. {@code driver.get}) are recorded as steps of their own
+ * under page "WebDriver".
+ * <p>
+ * Steps are aggregated into histograms per page and per test invocation (keyed
+ * "Class.method#n", n counting the invocations of that method, data rows and
+ * retries included, in start order), written with
+ * {@link #writeReports} as reports/step-metrics.json and/or
+ * reports/step-metrics.prom (Prometheus text format) per metrics.steps.format.
+ */
+public class StepMetrics {
+
+    private static final boolean ENABLED = ConfigReader.getBoolean("metrics.steps.enabled", true);
+    private static final List<String> FORMATS = Arrays.asList(
+            ConfigReader.get("metrics.steps.format", "json,prometheus").toLowerCase().split("\\s*,\\s*"));
+
+    // Histogram bucket upper bounds in milliseconds; the last bucket is +Inf
+    private static final long[] BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private static final String NO_TEST = "-";
+    private static final Pattern SESSION_PREFIX = Pattern.compile("^/session/[^/]+");
+    private static final Pattern ELEMENT_ID = Pattern.compile("/(element|shadow|frame)/[^/]+");
+
+    private static final ThreadLocal<Context> context = ThreadLocal.withInitial(Context::new);
+    // page -> step -> histogram, and test -> "page step" -> histogram
+    private static final Map<String, Map<String, Histogram>> byPage = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Histogram>> byTest = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Attribute the steps of this thread to a new invocation of a test
+     * ("Class.method") until {@link #endTest()}.
+     */
+    public static void beginTest(String test) {
+        Context ctx = context.get();
+        ctx.test = test + "#" + invocations.computeIfAbsent(test, t -> new AtomicInteger()).incrementAndGet();
+        ctx.depth = 0;
+        ctx.steps = 0;
+        ctx.stepCommands = 0;
+        ctx.stepPolls = 0;
+        ctx.slowest = null;
+        ctx.slowestNanos = -1;
+    }
+
+    /**
+     * Stop attributing steps to the current invocation; returns its one-line
+     * summary, or null when nothing was recorded.
+     */
+    public static String endTest() {
+        Context ctx = context.get();
+        String test = ctx.test;
+        ctx.test = null;
+        if (test == null || ctx.steps == 0) {
+            return null;
+        }
+        return String.format("Steps (%s): %d steps, %d WebDriver commands, %d wait polls, slowest %s %.0fms",
+                test, ctx.steps, ctx.stepCommands, ctx.stepPolls, ctx.slowest, ctx.slowestNanos / 1_000_000.0);
+    }
+
+    public static <T> T time(String page, String step, Supplier<T> action) {
+        if (!ENABLED) {
+            return action.get();
+        }
+        Context ctx = context.get();
+        if (ctx.depth > 0) {
+            // Nested step: its time, commands and polls belong to the enclosing one
+            return action.get();
+        }
+        ctx.depth++;
+        long commandsBefore = ctx.commands;
+        long pollsBefore = ctx.polls;
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            ctx.depth--;
+            record(ctx, page, step, System.nanoTime() - start, ctx.commands - commandsBefore, ctx.polls - pollsBefore);
+        }
+    }
+
+    public static void time(String page, String step, Runnable action) {
+        time(page, step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Count wait polls made on this thread (called by the wait engines).
+     */
+    public static void pollsMade(int polls) {
+        context.get().polls += polls;
+    }
+
+    /**
+     * Filter for the driver's HTTP client that counts every WebDriver command on the
+     * calling thread, and records commands issued outside any step.
+     */
+    public static Filter commandCounter() {
+        return next -> request -> {
+            Context ctx = context.get();
+            ctx.commands++;
+            if (ctx.depth > 0 || ctx.test == null) {
+                return next.execute(request);
+            }
+            long start = System.nanoTime();
+            try {
+                return next.execute(request);
+            } finally {
+                record(ctx, "WebDriver", commandName(request.getMethod().toString(), request.getUri()),
+                        System.nanoTime() - start, 1, 0);
+            }
+        };
+    }
+
+    /**
+     * Write the configured exports into the given directory.
+     */
+    public static void writeReports(Path directory) {
+        if (!ENABLED || byPage.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            if (FORMATS.contains("json")) {
+                Files.write(directory.resolve("step-metrics.json"), new ObjectMapper()
+                        .writerWithDefaultPrettyPrinter().writeValueAsBytes(toMap()));
+            }
+            if (FORMATS.contains("prometheus")) {
+                Files.write(directory.resolve("step-metrics.prom"), toPrometheus().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write step metrics to " + directory, e);
+        }
+    }
+
+    /**
+     * One line per page step: count, mean, max, commands and polls.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Step metrics:");
+        new TreeMap<>(byPage).forEach((page, steps) -> new TreeMap<>(steps).forEach((step, histogram) ->
+                summary.append(String.format("%n  %-16s %-24s count=%d avg=%.1fms max=%.1fms commands=%d polls=%d",
+                        page, step, histogram.count.sum(), histogram.meanMillis(), histogram.maxNanos.get() / 1_000_000.0,
+                        histogram.commands.sum(), histogram.polls.sum()))));
+        return summary.toString();
+    }
+
+    static Map<String, Object> toMap() {
+        Map<String, Object> pages = new TreeMap<>();
+        byPage.forEach((page, steps) -> pages.put(page, stepsToMap(steps)));
+        Map<String, Object> tests = new TreeMap<>();
+        byTest.forEach((test, steps) -> tests.put(test, stepsToMap(steps)));
+        List<Long> buckets = new ArrayList<>();
+        for (long bucket : BUCKETS_MS) {
+            buckets.add(bucket);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("bucketsMs", buckets);
+        report.put("pages", pages);
+        report.put("tests", tests);
+        return report;
+    }
+
+    static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP page_step_duration_seconds Wall time of page-object steps\n");
+        out.append("# TYPE page_step_duration_seconds histogram\n");
+        new TreeMap<>(byPage).forEach((page, steps) -> new TreeMap<>(steps).forEach((step, histogram) ->
+                histogram.appendPrometheus(out, "page_step_duration_seconds",
+                        "page=\"" + escape(page) + "\",step=\"" + escape(step) + "\"")));
+        out.append("# HELP test_step_duration_seconds Wall time of page-object steps per test\n");
+        out.append("# TYPE test_step_duration_seconds histogram\n");
+        new TreeMap<>(byTest).forEach((test, steps) -> new TreeMap<>(steps).forEach((key, histogram) -> {
+            String[] pageStep = key.split(" ", 2);
+            histogram.appendPrometheus(out, "test_step_duration_seconds", "test=\"" + escape(test)
+                    + "\",page=\"" + escape(pageStep[0]) + "\",step=\"" + escape(pageStep[1]) + "\"");
+        }));
+        out.append("# HELP page_step_webdriver_commands_total WebDriver commands issued by page-object steps\n");
+        out.append("# TYPE page_step_webdriver_commands_total counter\n");
+        new TreeMap<>(byPage).forEach((page, steps) -> new TreeMap<>(steps).forEach((step, histogram) ->
+                out.append("page_step_webdriver_commands_total{page=\"").append(escape(page)).append("\",step=\"")
+                        .append(escape(step)).append("\"} ").append(histogram.commands.sum()).append('\n')));
+        out.append("# HELP page_step_wait_polls_total Wait polls made by page-object steps\n");
+        out.append("# TYPE page_step_wait_polls_total counter\n");
+        new TreeMap<>(byPage).forEach((page, steps) -> new TreeMap<>(steps).forEach((step, histogram) ->
+                out.append("page_step_wait_polls_total{page=\"").append(escape(page)).append("\",step=\"")
+                        .append(escape(step)).append("\"} ").append(histogram.polls.sum()).append('\n')));
+        return out.toString();
+    }
+
+    private static void record(Context ctx, String page, String step, long nanos, long commands, long polls) {
+        byPage.computeIfAbsent(page, p -> new ConcurrentHashMap<>())
+                .computeIfAbsent(step, s -> new Histogram()).add(nanos, commands, polls);
+        byTest.computeIfAbsent(ctx.test == null ? NO_TEST : ctx.test, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(page + " " + step, s -> new Histogram()).add(nanos, commands, polls);
+        ctx.steps++;
+        ctx.stepCommands += commands;
+        ctx.stepPolls += polls;
+        if (nanos > ctx.slowestNanos) {
+            ctx.slowestNanos = nanos;
+            ctx.slowest = page + " " + step;
+        }
+    }
+
+    private static Map<String, Object> stepsToMap(Map<String, Histogram> steps) {
+        Map<String, Object> result = new TreeMap<>();
+        steps.forEach((step, histogram) -> result.put(step, histogram.toMap()));
+        return result;
+    }
+
+    /**
+     * "POST /element/{id}/click" style name for a W3C WebDriver command.
+     */
+    static String commandName(String method, String uri) {
+        String path = SESSION_PREFIX.matcher(uri).replaceFirst("");
+        path = ELEMENT_ID.matcher(path).replaceAll("/$1/{id}");
+        return method + " " + (path.isEmpty() ? "/" : path);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static class Context {
+        String test;
+        int depth;
+        // Running totals on this thread, sampled around each step
+        long commands;
+        long polls;
+        // The current invocation's steps, for its endTest() line
+        long steps;
+        long stepCommands;
+        long stepPolls;
+        String slowest;
+        long slowestNanos;
+    }
+
+    private static class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS_MS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder commands = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void add(long nanos, long commandCount, long pollCount) {
+            double millis = nanos / 1_000_000.0;
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && millis > BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            commands.add(commandCount);
+            polls.add(pollCount);
+        }
+
+        double meanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (n * 1_000_000.0);
+        }
+
+        Map<String, Object> toMap() {
+            List<Long> counts = new ArrayList<>();
+            for (LongAdder bucket : buckets) {
+                counts.add(bucket.sum());
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", count.sum());
+            map.put("meanMs", Math.round(meanMillis() * 100) / 100.0);
+            map.put("maxMs", Math.round(maxNanos.get() / 10_000.0) / 100.0);
+            map.put("commands", commands.sum());
+            map.put("polls", polls.sum());
+            map.put("buckets", counts);
+            return map;
+        }
+
+        void appendPrometheus(StringBuilder out, String name, String labels) {
+            long cumulative = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                cumulative += buckets[i].sum();
+                String le = i < BUCKETS_MS.length ? String.valueOf(BUCKETS_MS[i] / 1000.0) : "+Inf";
+                out.append(name).append("_bucket{").append(labels).append(",le=\"").append(le).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ").append(totalNanos.sum() / 1e9).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ").append(count.sum()).append('\n');
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package utils;
+
+/**
+ * How explicit waits detect that a condition is met.
+ */
+public enum WaitMode {
+    /** Re-check the condition over the WebDriver wire on every polling interval. */
+    POLLING,
+    /** Wait inside the browser on a MutationObserver and return in a single async script call. */
+    MUTATION_OBSERVER;
+
+    /**
+     * Mode configured globally through "web.wait.mode" (polling | mutation_observer), default polling.
+     */
+    public static WaitMode configured() {
+        String mode = ConfigReader.get("web.wait.mode", "polling").trim().toUpperCase();
+        try {
+            return WaitMode.valueOf(mode);
+        } catch (IllegalArgumentException e) {
+            return POLLING;
+        }
+    }
+}
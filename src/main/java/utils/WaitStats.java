@@ -0,0 +1,85 @@
+package utils;
+
+import utils.AdaptiveWait.ConditionType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-condition-type timing statistics for explicit waits, used to tune the
+ * adaptive polling schedule ("web.wait.poll.*" in config.properties).
+ */
+public class WaitStats {
+
+    private static final Map<ConditionType, Stats> stats = new EnumMap<>(ConditionType.class);
+
+    static {
+        for (ConditionType type : ConditionType.values()) {
+            stats.put(type, new Stats());
+        }
+    }
+
+    public static void record(ConditionType type, long elapsedNanos, int polls, boolean satisfied) {
+        Stats s = stats.get(type);
+        s.count.increment();
+        s.polls.add(polls);
+        s.totalNanos.add(elapsedNanos);
+        s.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (!satisfied) {
+            s.timeouts.increment();
+        }
+    }
+
+    /**
+     * Count a MutationObserverWait script that failed and handed over to polling.
+     */
+    public static void recordObserverFallback(ConditionType type) {
+        stats.get(type).observerFallbacks.increment();
+    }
+
+    public static long getCount(ConditionType type) {
+        return stats.get(type).count.sum();
+    }
+
+    public static double getAverageMillis(ConditionType type) {
+        Stats s = stats.get(type);
+        long count = s.count.sum();
+        return count == 0 ? 0 : s.totalNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public static double getAveragePolls(ConditionType type) {
+        Stats s = stats.get(type);
+        long count = s.count.sum();
+        return count == 0 ? 0 : (double) s.polls.sum() / count;
+    }
+
+    /**
+     * One line per condition type that was waited on.
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder("Wait stats:");
+        stats.forEach((type, s) -> {
+            long count = s.count.sum();
+            if (count > 0) {
+                summary.append(String.format("%n  %-12s count=%d avg=%.1fms max=%.1fms avgPolls=%.1f timeouts=%d",
+                        type, count, getAverageMillis(type), s.maxNanos.get() / 1_000_000.0,
+                        getAveragePolls(type), s.timeouts.sum()));
+                if (s.observerFallbacks.sum() > 0) {
+                    summary.append(" observerFallbacks=").append(s.observerFallbacks.sum());
+                }
+            }
+        });
+        return summary.toString();
+    }
+
+    private static class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder polls = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder observerFallbacks = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
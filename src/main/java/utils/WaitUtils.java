@@ -4,9 +4,12 @@ import org.openqa.selenium.*;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.AdaptiveWait.ConditionType;
 import utils.ConfigReader;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 /**
@@ -19,6 +22,10 @@ public class WaitUtils {
     private static final int SHORT_WAIT_TIMEOUT = ConfigReader.getInt("web.wait.short.timeout", 5);
     private static final int LONG_WAIT_TIMEOUT = ConfigReader.getInt("web.wait.long.timeout", 20);
     private static final int PAGE_LOAD_TIMEOUT = ConfigReader.getInt("web.wait.page.load.timeout", 30);
+    private static final WaitMode WAIT_MODE = WaitMode.configured();
+
+    // Shared adaptive waits per driver, keyed by timeout in seconds
+    private static final Map<WebDriver, Map<Integer, AdaptiveWait>> waits = new ConcurrentHashMap<>();
     
     /**
      * Create a WebDriverWait with default timeout
@@ -47,6 +54,22 @@ public class WaitUtils {
     public static WebDriverWait getCustomWait(WebDriver driver, int timeoutInSeconds) {
         return new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
     }
+
+    /**
+     * Get the shared adaptive wait for this driver and timeout, creating it on first use.
+     * It has nothing to configure; use getCustomWait or getFluentWait for a wait of your own.
+     */
+    public static AdaptiveWait getAdaptiveWait(WebDriver driver, int timeoutInSeconds) {
+        return waits.computeIfAbsent(driver, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(timeoutInSeconds, t -> new AdaptiveWait(driver, Duration.ofSeconds(t)));
+    }
+
+    /**
+     * Drop the shared waits of a driver that has been quit
+     */
+    public static void removeWaits(WebDriver driver) {
+        waits.remove(driver);
+    }
     
     /**
      * Create a FluentWait with custom polling interval
@@ -63,12 +86,13 @@ public class WaitUtils {
      * Wait for element to be visible and enabled
      */
     public static Boolean waitForElementToBeVisibleAndEnabled(WebDriver driver, By locator) {
-        WebDriverWait wait = getDefaultWait(driver);
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
         try {
-            wait.until(ExpectedConditions.and(
-                    ExpectedConditions.visibilityOfElementLocated(locator),
-                    ExpectedConditions.elementToBeClickable(locator)
-            ));
+            MutationObserverWait.until(driver, WAIT_MODE, Duration.ofSeconds(DEFAULT_WAIT_TIMEOUT),
+                    MutationObserverWait.Condition.clickable(locator), wait, ExpectedConditions.and(
+                            ExpectedConditions.visibilityOfElementLocated(locator),
+                            ExpectedConditions.elementToBeClickable(locator)
+                    ));
             return true;  // Element visible and clickable within timeout
         } catch (TimeoutException e) {
             return false; // Element not visible or clickable within timeout
@@ -79,12 +103,20 @@ public class WaitUtils {
      * Wait for element to be visible and enabled with custom timeout
      */
     public static boolean isElementVisibleAndEnabled(WebDriver driver, By locator, int timeoutInSeconds) {
+        return isElementVisibleAndEnabled(driver, locator, timeoutInSeconds, WAIT_MODE);
+    }
+
+    /**
+     * Wait for element to be visible and enabled with custom timeout and wait mode
+     */
+    public static boolean isElementVisibleAndEnabled(WebDriver driver, By locator, int timeoutInSeconds, WaitMode mode) {
         try {
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            wait.until(ExpectedConditions.and(
-                    ExpectedConditions.visibilityOfElementLocated(locator),
-                    ExpectedConditions.elementToBeClickable(locator)
-            ));
+            AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+            MutationObserverWait.until(driver, mode, Duration.ofSeconds(timeoutInSeconds),
+                    MutationObserverWait.Condition.clickable(locator), wait, ExpectedConditions.and(
+                            ExpectedConditions.visibilityOfElementLocated(locator),
+                            ExpectedConditions.elementToBeClickable(locator)
+                    ));
             return true;
         } catch (TimeoutException e) {
             return false;
@@ -95,104 +127,104 @@ public class WaitUtils {
      * Wait for element to have specific text
      */
     public static boolean waitForElementToHaveText(WebDriver driver, By locator, String expectedText) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.textToBe(locator, expectedText));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.TEXT, ExpectedConditions.textToBe(locator, expectedText));
     }
     
     /**
      * Wait for element to have specific text with custom timeout
      */
     public static boolean waitForElementToHaveText(WebDriver driver, By locator, String expectedText, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.textToBe(locator, expectedText));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.TEXT, ExpectedConditions.textToBe(locator, expectedText));
     }
     
     /**
      * Wait for element to have specific attribute value
      */
     public static boolean waitForElementToHaveAttribute(WebDriver driver, By locator, String attribute, String value) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.attributeToBe(locator, attribute, value));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.ATTRIBUTE, ExpectedConditions.attributeToBe(locator, attribute, value));
     }
     
     /**
      * Wait for element to have specific attribute value with custom timeout
      */
     public static boolean waitForElementToHaveAttribute(WebDriver driver, By locator, String attribute, String value, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.attributeToBe(locator, attribute, value));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.ATTRIBUTE, ExpectedConditions.attributeToBe(locator, attribute, value));
     }
     
     /**
      * Wait for element to be selected (for checkboxes, radio buttons)
      */
     public static boolean waitForElementToBeSelected(WebDriver driver, By locator) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.elementToBeSelected(locator));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.SELECTION, ExpectedConditions.elementToBeSelected(locator));
     }
     
     /**
      * Wait for element to be selected with custom timeout
      */
     public static boolean waitForElementToBeSelected(WebDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.elementToBeSelected(locator));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.SELECTION, ExpectedConditions.elementToBeSelected(locator));
     }
     
     /**
      * Wait for element to be not selected
      */
     public static boolean waitForElementToBeNotSelected(WebDriver driver, By locator) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.elementSelectionStateToBe(locator, false));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.SELECTION, ExpectedConditions.elementSelectionStateToBe(locator, false));
     }
     
     /**
      * Wait for element to be not selected with custom timeout
      */
     public static boolean waitForElementToBeNotSelected(WebDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.elementSelectionStateToBe(locator, false));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.SELECTION, ExpectedConditions.elementSelectionStateToBe(locator, false));
     }
     
     /**
      * Wait for frame to be available and switch to it
      */
     public static WebDriver waitForFrameAndSwitchToIt(WebDriver driver, By frameLocator) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.FRAME, ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
     }
     
     /**
      * Wait for frame to be available and switch to it with custom timeout
      */
     public static WebDriver waitForFrameAndSwitchToIt(WebDriver driver, By frameLocator, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.FRAME, ExpectedConditions.frameToBeAvailableAndSwitchToIt(frameLocator));
     }
     
     /**
      * Wait for window to open and switch to it
      */
     public static boolean waitForNewWindowAndSwitchToIt(WebDriver driver, int expectedWindowCount) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.numberOfWindowsToBe(expectedWindowCount));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.WINDOW, ExpectedConditions.numberOfWindowsToBe(expectedWindowCount));
     }
     
     /**
      * Wait for window to open and switch to it with custom timeout
      */
     public static boolean waitForNewWindowAndSwitchToIt(WebDriver driver, int expectedWindowCount, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.numberOfWindowsToBe(expectedWindowCount));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.WINDOW, ExpectedConditions.numberOfWindowsToBe(expectedWindowCount));
     }
     
     /**
      * Wait for page to load completely using JavaScript
      */
     public static boolean waitForPageToLoad(WebDriver driver) {
-        WebDriverWait wait = getCustomWait(driver, PAGE_LOAD_TIMEOUT);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, PAGE_LOAD_TIMEOUT);
+        return wait.until(ConditionType.PAGE_LOAD, webDriver -> 
             ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete")
         );
     }
@@ -201,8 +233,8 @@ public class WaitUtils {
      * Wait for page to load completely with custom timeout
      */
     public static boolean waitForPageToLoad(WebDriver driver, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.PAGE_LOAD, webDriver -> 
             ((JavascriptExecutor) webDriver).executeScript("return document.readyState").equals("complete")
         );
     }
@@ -211,8 +243,8 @@ public class WaitUtils {
      * Wait for jQuery to finish loading (if jQuery is used)
      */
     public static boolean waitForJQueryToLoad(WebDriver driver) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.CUSTOM, webDriver -> 
             (Boolean) ((JavascriptExecutor) webDriver).executeScript("return jQuery.active == 0")
         );
     }
@@ -221,8 +253,8 @@ public class WaitUtils {
      * Wait for jQuery to finish loading with custom timeout
      */
     public static boolean waitForJQueryToLoad(WebDriver driver, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.CUSTOM, webDriver -> 
             (Boolean) ((JavascriptExecutor) webDriver).executeScript("return jQuery.active == 0")
         );
     }
@@ -231,8 +263,8 @@ public class WaitUtils {
      * Wait for Angular to finish loading (if Angular is used)
      */
     public static boolean waitForAngularToLoad(WebDriver driver) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.CUSTOM, webDriver -> 
             (Boolean) ((JavascriptExecutor) webDriver).executeScript(
                 "return angular.element(document).injector().get('$http').pendingRequests.length === 0"
             )
@@ -243,8 +275,8 @@ public class WaitUtils {
      * Wait for Angular to finish loading with custom timeout
      */
     public static boolean waitForAngularToLoad(WebDriver driver, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(webDriver -> 
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.CUSTOM, webDriver -> 
             (Boolean) ((JavascriptExecutor) webDriver).executeScript(
                 "return angular.element(document).injector().get('$http').pendingRequests.length === 0"
             )
@@ -255,32 +287,32 @@ public class WaitUtils {
      * Wait for element to be stale (useful for dynamic content)
      */
     public static boolean waitForElementToBeStale(WebDriver driver, WebElement element) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.stalenessOf(element));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.STALENESS, ExpectedConditions.stalenessOf(element));
     }
     
     /**
      * Wait for element to be stale with custom timeout
      */
     public static boolean waitForElementToBeStale(WebDriver driver, WebElement element, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.stalenessOf(element));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.STALENESS, ExpectedConditions.stalenessOf(element));
     }
     
     /**
      * Wait for element to be refreshed and clickable
      */
     public static WebElement waitForElementToBeRefreshedAndClickable(WebDriver driver, By locator) {
-        WebDriverWait wait = getDefaultWait(driver);
-        return wait.until(ExpectedConditions.refreshed(ExpectedConditions.elementToBeClickable(locator)));
+        AdaptiveWait wait = getAdaptiveWait(driver, DEFAULT_WAIT_TIMEOUT);
+        return wait.until(ConditionType.CLICKABLE, ExpectedConditions.refreshed(ExpectedConditions.elementToBeClickable(locator)));
     }
     
     /**
      * Wait for element to be refreshed and clickable with custom timeout
      */
     public static WebElement waitForElementToBeRefreshedAndClickable(WebDriver driver, By locator, int timeoutInSeconds) {
-        WebDriverWait wait = getCustomWait(driver, timeoutInSeconds);
-        return wait.until(ExpectedConditions.refreshed(ExpectedConditions.elementToBeClickable(locator)));
+        AdaptiveWait wait = getAdaptiveWait(driver, timeoutInSeconds);
+        return wait.until(ConditionType.CLICKABLE, ExpectedConditions.refreshed(ExpectedConditions.elementToBeClickable(locator)));
     }
 
 }
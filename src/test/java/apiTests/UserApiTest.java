@@ -1,54 +1,61 @@
 package apiTests;
 
+import apiPojo.ApiJson;
 import apiPojo.RegisterUserRequest;
 import apiPojo.RegisterUserResponse;
 import base.ApiClient;
+import base.ApiExecutor;
+import base.ApiSession;
 import base.BaseTest;
+import base.UserApi;
 import dataprovider.jsonTestData.UserDataProvider;
 import io.restassured.response.Response;
 import org.testng.Assert;
+import listeners.ApiExecutionModeInterceptor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Listeners;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
-
+// Only the test for the configured api.execution.mode runs (per-row or fan-out group)
+@Listeners(ApiExecutionModeInterceptor.class)
 public class UserApiTest extends BaseTest {
 
-    @Test(dataProvider = "registerUserData", dataProviderClass = UserDataProvider.class)
+    @Test(dataProvider = "registerUserData", dataProviderClass = UserDataProvider.class, groups = ApiExecutor.PER_ROW)
     public void registerUserSuccessfully(Map<String, String> userData) {
-        Response response = given()
-                .when()
-                .get("https://practice.expandtesting.com/")
-                .then()
-                .extract().response();
+        registerAndVerify(userData);
+    }
 
-        Map<String, String> cookies = response.getCookies();
+    @Test(groups = ApiExecutor.FAN_OUT)
+    @SuppressWarnings("unchecked")
+    public void registerUsersFanOut() {
+        List<Map<String, String>> rows = new ArrayList<>();
+        UserDataProvider.registerUserData().forEachRemaining(row -> rows.add((Map<String, String>) row[0]));
+        System.out.println(ApiExecutor.describe());
+        ApiExecutor.runAll(rows, this::registerAndVerify);
+    }
 
-        System.out.println(cookies);
+    private void registerAndVerify(Map<String, String> userData) {
         RegisterUserRequest request = new RegisterUserRequest();
         request.setName(userData.get("name"));
         request.setEmail(userData.get("email"));
         request.setPassword(userData.get("password"));
 
-        Response registerUserResponse = given()
-                .spec(ApiClient.getRequest())
-                .cookies(cookies)
-                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
-                .accept("application/json")
-                .formParam("name", request.getName())
-                .formParam("email", request.getEmail())
-                .formParam("password", request.getPassword())
+        Response registerUserResponse = ApiSession.execute(cookies -> UserApi.registerRequest(cookies, request)
                 .when()
                 .log().all()
-                .post("/notes/api/users/register")
+                .post(UserApi.REGISTER_PATH));
+
+        registerUserResponse
                 .then()
                 .log().all()
                 .assertThat()
-                .statusCode(201)
-                .extract().response();
+                .statusCode(201);
 
-        RegisterUserResponse responseBody = registerUserResponse.as(RegisterUserResponse.class);
+        RegisterUserResponse responseBody = ApiJson.read(registerUserResponse.asByteArray(), RegisterUserResponse.class);
         Assert.assertTrue(responseBody.isSuccess());
         Assert.assertEquals(responseBody.getStatus(), 201);
         Assert.assertEquals(responseBody.getMessage(), "User account created successfully");
@@ -57,4 +64,17 @@ public class UserApiTest extends BaseTest {
         System.out.println("id :-"+id);
         Assert.assertEquals(responseBody.getData().getEmail(), request.getEmail());
     }
+
+    @Override
+    protected boolean loadsPages() {
+        return false;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void printPoolStats() {
+        System.out.println(ApiClient.poolSummary());
+        if (ApiClient.recordingSummary() != null) {
+            System.out.println(ApiClient.recordingSummary());
+        }
+    }
 }
@@ -1,15 +1,121 @@
 package base;
 
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.http.ContentType;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
 import utils.ConfigReader;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared Rest Assured setup for API tests. All requests go through one pre-built
+ * spec backed by a single HTTP client with a pooled, keep-alive connection
+ * manager, so parallel rows reuse connections instead of paying a TCP/TLS
+ * handshake per request. With api.recording.mode=record|replay the calls also
+ * pass through {@link ApiRecorder}.
+ */
 public class ApiClient {
+
+    private static final int CONNECT_TIMEOUT_MS = ConfigReader.getInt("api.http.connectTimeoutMs", 10000);
+    private static final int SOCKET_TIMEOUT_MS = ConfigReader.getInt("api.http.socketTimeoutMs", 30000);
+    private static final long POOL_TIMEOUT_MS = ConfigReader.getLong("api.http.pool.timeoutMs", 30000);
+    private static final long KEEP_ALIVE_MS = TimeUnit.SECONDS.toMillis(ConfigReader.getInt("api.http.keepAliveSeconds", 30));
+
+    // Rest Assured 5 only accepts an AbstractHttpClient, so the deprecated HttpClient 4.x classic types stay
+    @SuppressWarnings("deprecation")
+    private static final PoolingClientConnectionManager connectionManager = createConnectionManager();
+    @SuppressWarnings("deprecation")
+    private static final DefaultHttpClient httpClient = createHttpClient();
+    private static final ApiRecorder recorder = ApiRecorder.fromConfig();
+
+    private static final RequestSpecification streamingRequest = baseSpec().build();
+
+    private static final RequestSpecification request = baseSpec()
+            // Read every body eagerly: an unread stream would keep its connection leased
+            .addFilter((requestSpec, responseSpec, context) -> {
+                Response response = context.next(requestSpec, responseSpec);
+                response.asByteArray();
+                return response;
+            })
+            .build();
+
     public static RequestSpecification getRequest() {
-        return new RequestSpecBuilder()
+        return request;
+    }
+
+    /**
+     * Same client and base URI, but the body is left on the wire for streaming
+     * (e.g. ApiJson.forEachElement). Callers must read or close
+     * {@code response.asInputStream()} to return the connection to the pool.
+     */
+    public static RequestSpecification getStreamingRequest() {
+        return streamingRequest;
+    }
+
+    /**
+     * Totals across all routes: leased, available and pending connections.
+     */
+    public static PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Record/replay state, or null when api.recording.mode is off.
+     */
+    public static String recordingSummary() {
+        return recorder == null ? null : recorder.describe();
+    }
+
+    public static String poolSummary() {
+        PoolStats stats = getPoolStats();
+        return String.format("HTTP pool: leased=%d available=%d pending=%d max=%d",
+                stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax());
+    }
+
+    @SuppressWarnings("deprecation") // HttpClient 4.x params, the only way Rest Assured 5 takes timeouts
+    private static RequestSpecBuilder baseSpec() {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
                 .setBaseUri(ConfigReader.get("api.baseUrl"))
-                .build();
+                .setConfig(RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                        .reuseHttpClientInstance()
+                        .httpClientFactory(() -> httpClient)
+                        .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MS)
+                        .setParam(CoreConnectionPNames.SO_TIMEOUT, SOCKET_TIMEOUT_MS)
+                        .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, POOL_TIMEOUT_MS)));
+        if (recorder != null) {
+            builder.addFilter(recorder);
+        }
+        return builder;
+    }
+
+    @SuppressWarnings("deprecation") // see connectionManager
+    private static PoolingClientConnectionManager createConnectionManager() {
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(
+                SchemeRegistryFactory.createSystemDefault(), KEEP_ALIVE_MS, TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(ConfigReader.getInt("api.http.pool.maxTotal", 50));
+        manager.setDefaultMaxPerRoute(ConfigReader.getInt("api.http.pool.maxPerRoute", 20));
+        return manager;
     }
 
+    @SuppressWarnings("deprecation") // see connectionManager
+    private static DefaultHttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        // Honour the server's Keep-Alive timeout, capped by our own idle limit
+        ConnectionKeepAliveStrategy serverHint = DefaultConnectionKeepAliveStrategy.INSTANCE;
+        client.setKeepAliveStrategy((response, context) -> {
+            long hinted = serverHint.getKeepAliveDuration(response, context);
+            return hinted > 0 ? Math.min(hinted, KEEP_ALIVE_MS) : KEEP_ALIVE_MS;
+        });
+        return client;
+    }
 }
@@ -0,0 +1,120 @@
+package base;
+
+import utils.ConfigReader;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Fan-out execution for data-driven API tests. Instead of one TestNG thread
+ * blocking on Rest Assured per row, {@link #runAll} runs every row's
+ * request/assert pipeline on its own thread with at most
+ * api.execution.concurrency rows in flight.
+ * <p>
+ * api.execution.threads=virtual uses a virtual thread per row when the JVM
+ * supports it (JDK 21+, build with -Pvirtual-threads); otherwise, or with
+ * "platform", rows share a fixed pool sized to the concurrency limit.
+ */
+public class ApiExecutor {
+
+    public static final String PER_ROW = "per-row";
+    public static final String FAN_OUT = "fan-out";
+
+    private static final String MODE = ConfigReader.get("api.execution.mode", PER_ROW).trim().toLowerCase();
+    private static final int CONCURRENCY = Math.max(1, ConfigReader.getInt("api.execution.concurrency", 32));
+    private static final boolean VIRTUAL = ConfigReader.get("api.execution.threads", "virtual").equalsIgnoreCase("virtual");
+
+    /**
+     * True when data rows should be run together through {@link #runAll} rather than as one TestNG invocation each.
+     */
+    public static boolean isFanOut() {
+        return MODE.equals(FAN_OUT);
+    }
+
+    /**
+     * Run the pipeline for every row and wait for all of them. Failures don't
+     * stop other rows; they are collected and rethrown as one AssertionError.
+     */
+    public static <T> void runAll(List<T> rows, Consumer<T> pipeline) {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        ExecutorService executor = newExecutor();
+        List<CompletableFuture<Void>> results = new ArrayList<>(rows.size());
+        List<String> failures = new ArrayList<>();
+        try {
+            for (T row : rows) {
+                results.add(CompletableFuture.runAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        pipeline.accept(row);
+                    } finally {
+                        permits.release();
+                    }
+                }, executor));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).join();
+                } catch (RuntimeException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    failures.add("row " + i + " " + rows.get(i) + ": " + cause);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.size() + " of " + rows.size() + " rows failed:\n"
+                    + String.join("\n", failures));
+        }
+    }
+
+    public static String describe() {
+        return "API execution: mode=" + MODE + " threads=" + (VIRTUAL && supportsVirtualThreads() ? "virtual" : "platform")
+                + " concurrency=" + CONCURRENCY;
+    }
+
+    /**
+     * Executor for API work: a virtual thread per task when configured and supported,
+     * otherwise a daemon platform pool sized to api.execution.concurrency. Caller shuts it down.
+     */
+    public static ExecutorService newExecutor() {
+        if (VIRTUAL) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+        }
+        return Executors.newFixedThreadPool(CONCURRENCY, task -> {
+            Thread thread = new Thread(task, "api-executor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static boolean supportsVirtualThreads() {
+        ExecutorService probe = newVirtualThreadPerTaskExecutor();
+        if (probe == null) {
+            return false;
+        }
+        probe.shutdown();
+        return true;
+    }
+
+    // Looked up reflectively so the sources still compile for Java 11
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package base;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Cookie;
+import io.restassured.http.Cookies;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import utils.ConfigReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Record/replay for API calls made through {@link ApiClient}, switched by
+ * api.recording.mode:
+ * <ul>
+ *   <li>off: every call goes to the server</li>
+ *   <li>record: calls go to the server and each response is appended to the
+ *   {@link RecordingStore} in api.recording.dir</li>
+ *   <li>replay: calls are answered from the store with no network I/O; a call
+ *   that was never recorded fails with its request key</li>
+ * </ul>
+ * The key is the method, path, sorted query and form params, the request body
+ * if any (binary bodies by hash), and the headers listed in api.recording.keyHeaders. The base URL and
+ * cookies are left out, so a recording made against one host replays for any
+ * other and for any session.
+ */
+public class ApiRecorder implements Filter {
+
+    private static final String MODE = ConfigReader.get("api.recording.mode", "off").toLowerCase(Locale.ROOT);
+    private static final List<String> KEY_HEADERS = Arrays.stream(
+                    ConfigReader.get("api.recording.keyHeaders", "Accept,Content-Type").split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .sorted()
+            .collect(Collectors.toList());
+    // Serializes object bodies the same way every run
+    private static final ObjectMapper JSON = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final RecordingStore store;
+    private final boolean replay;
+
+    private ApiRecorder(RecordingStore store, boolean replay) {
+        this.store = store;
+        this.replay = replay;
+    }
+
+    /**
+     * The filter for the configured mode, or null when recording is off.
+     */
+    static ApiRecorder fromConfig() {
+        String directory = ConfigReader.get("api.recording.dir", "recordings/api");
+        switch (MODE) {
+            case "off":
+                return null;
+            case "record":
+                return new ApiRecorder(RecordingStore.openForRecord(Paths.get(directory)), false);
+            case "replay":
+                return new ApiRecorder(RecordingStore.openForReplay(Paths.get(directory)), true);
+            default:
+                throw new IllegalArgumentException("Unknown api.recording.mode '" + MODE + "', expected off, record or replay");
+        }
+    }
+
+    public String describe() {
+        String summary = String.format("API recording: %s, %d interactions in %s",
+                replay ? "replay" : "record", store.size(), store.getDirectory());
+        if (store.getIncompleteIndexBytes() > 0) {
+            summary += String.format(" (skipped an incomplete last index entry of %d bytes)", store.getIncompleteIndexBytes());
+        }
+        return summary;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext context) {
+        String key = key(requestSpec);
+        if (replay) {
+            RecordingStore.Recorded recorded = store.get(key);
+            if (recorded == null) {
+                throw new IllegalStateException("No recorded API response for " + key);
+            }
+            return toResponse(recorded);
+        }
+        Response response = context.next(requestSpec, responseSpec);
+        List<String[]> headers = new ArrayList<>();
+        for (Header header : response.getHeaders()) {
+            headers.add(new String[]{header.getName(), header.getValue()});
+        }
+        store.put(key, new RecordingStore.Recorded(response.getStatusCode(), response.getStatusLine(), headers,
+                response.asByteArray()));
+        return response;
+    }
+
+    static String key(FilterableRequestSpecification requestSpec) {
+        StringBuilder key = new StringBuilder(requestSpec.getMethod()).append(' ')
+                .append(URI.create(requestSpec.getURI()).getRawPath());
+        appendSorted(key, "?", requestSpec.getQueryParams());
+        appendSorted(key, " form:", requestSpec.getFormParams());
+        if (requestSpec.getBody() != null) {
+            key.append(" body:").append(bodyKey(requestSpec));
+        }
+        for (String name : KEY_HEADERS) {
+            List<String> values = requestSpec.getHeaders().getValues(name);
+            if (!values.isEmpty()) {
+                key.append(' ').append(name).append(':').append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Body part of the key: strings as they are, binary bodies (byte[], File,
+     * InputStream) as a SHA-256 of their bytes and other objects as JSON with sorted
+     * map keys. A stream is read once and put back as bytes so it can still be sent.
+     */
+    private static String bodyKey(FilterableRequestSpecification requestSpec) {
+        Object body = requestSpec.getBody();
+        try {
+            if (body instanceof String) {
+                return (String) body;
+            }
+            if (body instanceof byte[]) {
+                return "sha256:" + sha256((byte[]) body);
+            }
+            if (body instanceof File) {
+                return "sha256:" + sha256(Files.readAllBytes(((File) body).toPath()));
+            }
+            if (body instanceof InputStream) {
+                byte[] bytes = ((InputStream) body).readAllBytes();
+                requestSpec.body(bytes);
+                return "sha256:" + sha256(bytes);
+            }
+            return JSON.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the request body for its recording key", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void appendSorted(StringBuilder key, String prefix, Map<String, String> params) {
+        if (params.isEmpty()) {
+            return;
+        }
+        key.append(prefix);
+        boolean first = true;
+        for (Map.Entry<String, String> param : new TreeMap<>(params).entrySet()) {
+            key.append(first ? "" : "&").append(param.getKey()).append('=').append(param.getValue());
+            first = false;
+        }
+    }
+
+    private static Response toResponse(RecordingStore.Recorded recorded) {
+        List<Header> headers = new ArrayList<>(recorded.headers.size());
+        List<String> setCookies = new ArrayList<>();
+        String contentType = null;
+        for (String[] header : recorded.headers) {
+            headers.add(new Header(header[0], header[1]));
+            if (header[0].equalsIgnoreCase("Content-Type")) {
+                contentType = header[1];
+            } else if (header[0].equalsIgnoreCase("Set-Cookie")) {
+                setCookies.add(header[1]);
+            }
+        }
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(recorded.status)
+                .setStatusLine(recorded.statusLine)
+                .setHeaders(new Headers(headers))
+                // Built responses don't derive cookies from headers; ApiSession reads them
+                .setCookies(toCookies(setCookies))
+                .setBody(recorded.body);
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Parse Set-Cookie header values; values that aren't valid cookies are skipped.
+     */
+    private static Cookies toCookies(List<String> setCookies) {
+        List<Cookie> cookies = new ArrayList<>();
+        for (String setCookie : setCookies) {
+            List<HttpCookie> parsed;
+            try {
+                parsed = HttpCookie.parse(setCookie);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            for (HttpCookie httpCookie : parsed) {
+                Cookie.Builder cookie = new Cookie.Builder(httpCookie.getName(), httpCookie.getValue())
+                        .setSecured(httpCookie.getSecure())
+                        .setHttpOnly(httpCookie.isHttpOnly());
+                if (httpCookie.getDomain() != null) {
+                    cookie.setDomain(httpCookie.getDomain());
+                }
+                if (httpCookie.getPath() != null) {
+                    cookie.setPath(httpCookie.getPath());
+                }
+                if (httpCookie.getMaxAge() >= 0) {
+                    cookie.setMaxAge(httpCookie.getMaxAge());
+                }
+                cookies.add(cookie.build());
+            }
+        }
+        return new Cookies(cookies);
+    }
+}
@@ -0,0 +1,117 @@
+package base;
+
+import io.restassured.response.Response;
+import utils.ConfigReader;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.function.Function;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Caches the site's session cookies so each API test makes only the request it
+ * is testing. Cookies are fetched with one GET of the base URL and reused until
+ * they expire (api.session.ttlSeconds, 0 = never) or a call comes back 401/403.
+ * With api.session.scope=thread each worker thread keeps its own session;
+ * the default "shared" scope uses one session for all threads.
+ */
+public class ApiSession {
+
+    private static final long TTL_NANOS =
+            ConfigReader.getDuration("api.session.ttlSeconds", ChronoUnit.SECONDS, Duration.ZERO).toNanos();
+    private static final boolean PER_THREAD = ConfigReader.get("api.session.scope", "shared").equalsIgnoreCase("thread");
+    private static final String BOOTSTRAP_PATH = ConfigReader.get("api.session.bootstrapPath", "/");
+
+    private static final Object lock = new Object();
+    private static volatile Session shared;
+    private static final ThreadLocal<Session> perThread = new ThreadLocal<>();
+
+    /**
+     * Current session cookies, fetching or refreshing them if needed.
+     */
+    public static Map<String, String> cookies() {
+        return current().cookies;
+    }
+
+    /**
+     * Run a call with the session cookies. If it is rejected with 401/403 the
+     * session is refreshed and the call is retried once.
+     */
+    public static Response execute(Function<Map<String, String>, Response> call) {
+        Session session = current();
+        Response response = call.apply(session.cookies);
+        if (response.getStatusCode() == 401 || response.getStatusCode() == 403) {
+            invalidate(session);
+            response = call.apply(current().cookies);
+        }
+        return response;
+    }
+
+    /**
+     * Drop the cached session so the next call fetches fresh cookies.
+     */
+    public static void invalidate() {
+        perThread.remove();
+        shared = null;
+    }
+
+    private static void invalidate(Session stale) {
+        if (PER_THREAD) {
+            perThread.remove();
+        } else {
+            synchronized (lock) {
+                // Another thread may already have replaced it
+                if (shared == stale) {
+                    shared = null;
+                }
+            }
+        }
+    }
+
+    private static Session current() {
+        if (PER_THREAD) {
+            Session session = perThread.get();
+            if (session == null || session.isExpired()) {
+                session = fetch();
+                perThread.set(session);
+            }
+            return session;
+        }
+        Session session = shared;
+        if (session == null || session.isExpired()) {
+            synchronized (lock) {
+                session = shared;
+                if (session == null || session.isExpired()) {
+                    session = fetch();
+                    shared = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    private static Session fetch() {
+        Response response = given()
+                .spec(ApiClient.getRequest())
+                .when()
+                .get(BOOTSTRAP_PATH)
+                .then()
+                .extract().response();
+        return new Session(Map.copyOf(response.getCookies()));
+    }
+
+    private static class Session {
+        final Map<String, String> cookies;
+        final long fetchedAt = System.nanoTime();
+
+        Session(Map<String, String> cookies) {
+            this.cookies = cookies;
+        }
+
+        boolean isExpired() {
+            return TTL_NANOS > 0 && System.nanoTime() - fetchedAt >= TTL_NANOS;
+        }
+    }
+}
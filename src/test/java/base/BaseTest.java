@@ -2,29 +2,76 @@ package base;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import org.openqa.selenium.WebDriver;
+import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import pages.BasePage;
+import stub.StubServer;
+import utils.BrowserProfile;
+import utils.ConfigReader;
 import utils.DriverFactory;
+import utils.ExtentTestManager;
+import utils.NetworkPolicy;
 import utils.ReportManager;
+import utils.ScreenshotUtil;
+import utils.StepMetrics;
+import utils.WaitStats;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 public class BaseTest {
 
     protected ExtentReports extent;
     protected ThreadLocal<ExtentTest> test = new ThreadLocal<>();
 
+    private static StubServer stubServer;
+
     @BeforeSuite
     public void setupReport() {
         extent = ReportManager.getReporter();
     }
 
+    @BeforeSuite(dependsOnMethods = "setupReport")
+    public void startStubServer() throws IOException {
+        // Point every base URL at the in-process stub before any test (or ApiClient) reads it
+        if (ConfigReader.getBoolean("stub.enabled", false)) {
+            stubServer = StubServer.start(ConfigReader.getInt("stub.port", 0));
+            ConfigReader.override(stubServer.baseUrlOverrides());
+            System.out.println("Stub server: " + stubServer.getBaseUrl());
+        }
+    }
+
+    // Last, so no browsers are started when report or stub setup has failed
+    @BeforeSuite(dependsOnMethods = "startStubServer")
+    public void warmUpDrivers() {
+        // Start one browser per worker thread before the first test asks for one;
+        // thread-count defaults to 5 even when nothing runs in parallel.
+        // @BeforeSuite methods can't take an ITestContext, so read it from the running configuration
+        XmlSuite suite = Reporter.getCurrentTestResult().getTestContext().getSuite().getXmlSuite();
+        int threadCount = suite.getParallel().isParallel() ? suite.getThreadCount() : 1;
+        for (XmlTest xmlTest : suite.getTests()) {
+            if (xmlTest.getParallel().isParallel()) {
+                threadCount = Math.max(threadCount, xmlTest.getThreadCount());
+            }
+        }
+        int sessions = ConfigReader.getInt("web.driver.pool.warmup", threadCount);
+        System.out.println("Browser profile: " + BrowserProfile.active());
+        DriverFactory.warmUp(Math.min(sessions, ConfigReader.getInt("web.driver.pool.size", 4)));
+    }
+
     @BeforeMethod
     public void setup(Method method) {
         // Initialize WebDriver
-        DriverFactory.getDriver();
+        NetworkPolicy.beginTest(DriverFactory.getDriver());
+        StepMetrics.beginTest(method.getDeclaringClass().getSimpleName() + "." + method.getName());
 
         // Create a new ExtentTest instance per thread
 //        test.set(extent.createTest(method.getName()));
@@ -36,13 +83,51 @@ public class BaseTest {
 
     @AfterMethod
     public void tearDown() {
-        DriverFactory.quitDriver();
+        // Before the report lines below, whose WebDriver calls are not part of the test
+        reportInfo(StepMetrics.endTest());
+        WebDriver driver = DriverFactory.getDriver();
+        if (loadsPages()) {
+            reportInfo(BrowserProfile.active().describeNavigation(driver));
+        }
+        reportInfo(NetworkPolicy.endTest(driver));
+        DriverFactory.releaseDriver(); // Return the session to the pool for the next test
         test.remove(); // Clean up thread-local ExtentTest
     }
 
     @AfterSuite
     public void tearDownReport() {
-        extent.flush(); // Only flush once after all tests
+        ScreenshotUtil.awaitPendingWrites(Duration.ofSeconds(30)); // Let queued screenshots reach disk
+        ExtentTestManager.flush(); // Only flush once after all tests
+        DriverFactory.shutdownPool();
+        System.out.println(DriverFactory.getPool());
+        System.out.println(WaitStats.summary());
+        System.out.println(BasePage.elementCacheSummary());
+        if (NetworkPolicy.isEnabled()) {
+            System.out.println(NetworkPolicy.summary());
+        }
+        if (StepMetrics.isEnabled()) {
+            System.out.println(StepMetrics.summary());
+            StepMetrics.writeReports(Paths.get(System.getProperty("user.dir"), "reports"));
+        }
+        if (stubServer != null) {
+            System.out.println("Stub server requests: " + stubServer.getRequestCount());
+            stubServer.stop();
+        }
+    }
+
+    /**
+     * Whether the tests of this class load pages, so the navigation timing of the
+     * last one is worth reporting. API tests override this to return false.
+     */
+    protected boolean loadsPages() {
+        return true;
+    }
+
+    // Suites without ExtentTestListener (testng-api.xml, testng-web.xml) have no report test
+    private static void reportInfo(String line) {
+        if (line != null && ExtentTestManager.getTest() != null) {
+            ExtentTestManager.getTest().info(line);
+        }
     }
 
     // Optional getter for ExtentTest per thread
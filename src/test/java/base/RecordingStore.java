@@ -0,0 +1,230 @@
+package base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk store of recorded HTTP responses, keyed by a normalised request key.
+ * <p>
+ * Two append-only files live in the store directory:
+ * <ul>
+ *   <li>{@code interactions.dat}: the responses, each as status, headers and body</li>
+ *   <li>{@code interactions.idx}: key, offset and length of every response</li>
+ * </ul>
+ * Opening reads only the index into a hash map; the data file is memory-mapped
+ * for replay, so a lookup is one map probe plus a read of that record's bytes,
+ * however many interactions are stored. Recording the same key again appends a
+ * new record and the latest one wins. A record is indexed only after its data is
+ * written, so if recording is killed mid-write the store still opens with every
+ * complete interaction. Records are read through a single mapping, so the data
+ * file is capped at 2 GB.
+ */
+public class RecordingStore {
+
+    private static final String DATA_FILE = "interactions.dat";
+    private static final String INDEX_FILE = "interactions.idx";
+
+    private final Path directory;
+    private final Map<String, long[]> index = new ConcurrentHashMap<>();
+    private FileChannel dataOut;
+    private FileChannel indexOut;
+    private volatile MappedByteBuffer mapped;
+    // Bytes of a partly written last index entry skipped on open
+    private long incompleteIndexBytes;
+
+    private RecordingStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Open for replay: load the index and map the data file read-only.
+     */
+    public static RecordingStore openForReplay(Path directory) {
+        RecordingStore store = new RecordingStore(directory);
+        Path data = directory.resolve(DATA_FILE);
+        if (!Files.exists(data) || !Files.exists(directory.resolve(INDEX_FILE))) {
+            throw new IllegalStateException("No API recordings in " + directory + "; run once with api.recording.mode=record");
+        }
+        store.loadIndex();
+        try (FileChannel channel = FileChannel.open(data, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException(data + " is over 2 GB, more than replay can map");
+            }
+            store.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + data, e);
+        }
+        return store;
+    }
+
+    /**
+     * Open for recording: existing interactions are kept and new ones appended.
+     */
+    public static RecordingStore openForRecord(Path directory) {
+        RecordingStore store = new RecordingStore(directory);
+        try {
+            Files.createDirectories(directory);
+            long indexLength = Files.exists(directory.resolve(INDEX_FILE)) ? store.loadIndex() : 0;
+            store.dataOut = FileChannel.open(directory.resolve(DATA_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            store.indexOut = FileChannel.open(directory.resolve(INDEX_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            // Drop a partly written last entry so new entries follow the last complete one
+            store.indexOut.truncate(indexLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open API recordings in " + directory, e);
+        }
+        return store;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Bytes of a partly written last index entry that were skipped on open (0 if none).
+     */
+    public long getIncompleteIndexBytes() {
+        return incompleteIndexBytes;
+    }
+
+    /**
+     * The recorded response for a key, or null if there is none.
+     */
+    public Recorded get(String key) {
+        long[] entry = index.get(key);
+        if (entry == null || mapped == null) {
+            return null;
+        }
+        ByteBuffer record = mapped.duplicate();
+        record.position((int) entry[0]).limit((int) (entry[0] + entry[1]));
+        int status = record.getInt();
+        String statusLine = readString(record);
+        int headerCount = record.getShort();
+        List<String[]> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new String[]{readString(record), readString(record)});
+        }
+        byte[] body = new byte[record.getInt()];
+        record.get(body);
+        return new Recorded(status, statusLine, headers, body);
+    }
+
+    /**
+     * Append a response for a key; safe to call from several threads.
+     */
+    public synchronized void put(String key, Recorded recorded) {
+        if (dataOut == null) {
+            throw new IllegalStateException("Recording store was opened for replay");
+        }
+        int size = Integer.BYTES + stringSize(recorded.statusLine) + Short.BYTES + Integer.BYTES + recorded.body.length;
+        for (String[] header : recorded.headers) {
+            size += stringSize(header[0]) + stringSize(header[1]);
+        }
+        ByteBuffer record = ByteBuffer.allocate(size);
+        record.putInt(recorded.status);
+        writeString(record, recorded.statusLine);
+        record.putShort((short) recorded.headers.size());
+        for (String[] header : recorded.headers) {
+            writeString(record, header[0]);
+            writeString(record, header[1]);
+        }
+        record.putInt(recorded.body.length).put(recorded.body).flip();
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        try {
+            long offset = dataOut.size();
+            if (offset + size > Integer.MAX_VALUE) {
+                // Replay reads through one mapping with int positions
+                throw new IllegalStateException("Recording " + key + " would grow " + DATA_FILE
+                        + " in " + directory + " past 2 GB; record into a new api.recording.dir");
+            }
+            while (record.hasRemaining()) {
+                dataOut.write(record);
+            }
+            ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + keyBytes.length + Long.BYTES + Integer.BYTES);
+            entry.putInt(keyBytes.length).put(keyBytes).putLong(offset).putInt(size).flip();
+            while (entry.hasRemaining()) {
+                indexOut.write(entry);
+            }
+            index.put(key, new long[]{offset, size});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not record API response in " + directory, e);
+        }
+    }
+
+    /**
+     * Load the index; returns the length of its complete entries.
+     */
+    private long loadIndex() {
+        Path file = directory.resolve(INDEX_FILE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long complete = 0;
+            while (entries.remaining() >= Integer.BYTES) {
+                int keyLength = entries.getInt();
+                if (keyLength < 0 || entries.remaining() < (long) keyLength + Long.BYTES + Integer.BYTES) {
+                    break;
+                }
+                byte[] key = new byte[keyLength];
+                entries.get(key);
+                long offset = entries.getLong();
+                int length = entries.getInt();
+                index.put(new String(key, StandardCharsets.UTF_8), new long[]{offset, length});
+                complete = entries.position();
+            }
+            // A partly written last entry (recording was killed) is skipped; the ones before it are intact
+            incompleteIndexBytes = channel.size() - complete;
+            return complete;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private static int stringSize(String value) {
+        return Integer.BYTES + value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One recorded response: status, status line, headers in order and raw body.
+     */
+    public static class Recorded {
+        final int status;
+        final String statusLine;
+        final List<String[]> headers;
+        final byte[] body;
+
+        public Recorded(int status, String statusLine, List<String[]> headers, byte[] body) {
+            this.status = status;
+            this.statusLine = statusLine == null ? "" : statusLine;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package base;
+
+import apiPojo.RegisterUserRequest;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Request templates for the notes user API, shared by the functional tests and
+ * the load scenarios so both exercise exactly the same request.
+ */
+public class UserApi {
+
+    public static final String REGISTER_PATH = "/notes/api/users/register";
+
+    /**
+     * Register-user request, ready to send with {@code .post(REGISTER_PATH)}.
+     */
+    public static RequestSpecification registerRequest(Map<String, String> cookies, RegisterUserRequest request) {
+        return given()
+                .spec(ApiClient.getRequest())
+                .cookies(cookies)
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .accept("application/json")
+                .formParam("name", request.getName())
+                .formParam("email", request.getEmail())
+                .formParam("password", request.getPassword());
+    }
+}
@@ -0,0 +1,106 @@
+package benchmarks;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import utils.ExtentTestManager;
+import utils.ReportEventQueue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmark comparing report writes from test threads: calling ExtentReports
+ * directly (shared, internally synchronized) versus the buffered ReportEventQueue.
+ * Reports the time test threads spend in report calls at 2, 8 and 32 threads.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.ExtentReportingBenchmark
+ */
+public class ExtentReportingBenchmark {
+
+    private static final int TESTS_PER_THREAD = 500;
+    private static final int LOGS_PER_TEST = 10;
+    private static final int[] THREAD_COUNTS = {2, 8, 32};
+
+    public static void main(String[] args) throws InterruptedException {
+        // Warm up both paths so JIT compilation doesn't skew the first rows
+        runDirect(4);
+        runBuffered(4);
+
+        System.out.printf("%-8s %-10s %15s %15s%n", "threads", "mode", "producer ms", "ns/call");
+        for (int threads : THREAD_COUNTS) {
+            report(threads, "direct", runDirect(threads));
+            report(threads, "buffered", runBuffered(threads));
+        }
+    }
+
+    private static long runDirect(int threads) throws InterruptedException {
+        ExtentReports extent = new ExtentReports();
+        return runProducers(threads, (thread, i) -> {
+            ExtentTest test = extent.createTest("direct-" + thread + "-" + i);
+            for (int log = 0; log < LOGS_PER_TEST; log++) {
+                test.info("step " + log);
+            }
+            test.pass("done");
+        });
+    }
+
+    private static long runBuffered(int threads) throws InterruptedException {
+        long nanos = runProducers(threads, (thread, i) -> {
+            ExtentTestManager.startTest("buffered-" + thread + "-" + i);
+            for (int log = 0; log < LOGS_PER_TEST; log++) {
+                ExtentTestManager.getTest().info("step " + log);
+            }
+            ExtentTestManager.getTest().pass("done");
+        });
+        ReportEventQueue.drain(); // don't let one run's backlog leak into the next
+        return nanos;
+    }
+
+    /**
+     * Start all producers together and return the total wall time they spent in report calls.
+     */
+    private static long runProducers(int threads, TestBody body) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] elapsed = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    for (int i = 0; i < TESTS_PER_THREAD; i++) {
+                        body.run(thread, i);
+                    }
+                    elapsed[thread] = System.nanoTime() - begin;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        long total = 0;
+        for (long nanos : elapsed) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    private static void report(int threads, String mode, long producerNanos) {
+        long calls = (long) threads * TESTS_PER_THREAD * (LOGS_PER_TEST + 2);
+        System.out.printf("%-8d %-10s %15.1f %15.1f%n", threads, mode,
+                producerNanos / 1_000_000.0 / threads, (double) producerNanos / calls);
+    }
+
+    private interface TestBody {
+        void run(int thread, int iteration);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmarks;
+
+import apiPojo.ApiJson;
+import apiPojo.RegisterUserResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * Microbenchmark for response mapping: Rest Assured's {@code .as()} against the
+ * cached ApiJson reader for the register-user response, and a full tree parse
+ * against ApiJson.forEachElement for a large array body. Reports time and bytes
+ * allocated per operation.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=benchmarks.JsonMappingBenchmark
+ */
+public class JsonMappingBenchmark {
+
+    private static final int SMALL_ITERATIONS = 20_000;
+    private static final int LARGE_ITERATIONS = 20;
+    private static final int LARGE_ELEMENTS = 100_000;
+
+    private static final String REGISTER_RESPONSE = "{\"success\":true,\"status\":201,"
+            + "\"message\":\"User account created successfully\","
+            + "\"data\":{\"id\":\"66f1c0e2a4b5c6d7e8f90a1b\",\"name\":\"soundhu22\",\"email\":\"soundarya22@gmail.com\"}}";
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) throws IOException {
+        byte[] small = REGISTER_RESPONSE.getBytes(StandardCharsets.UTF_8);
+        Response response = new ResponseBuilder()
+                .setStatusCode(201)
+                .setContentType("application/json")
+                .setBody(REGISTER_RESPONSE)
+                .build();
+        byte[] large = largeArray();
+        ObjectMapper treeMapper = new ObjectMapper();
+
+        System.out.printf("%-34s %12s %14s%n", "case", "µs/op", "bytes/op");
+        for (int round = 0; round < 2; round++) {
+            // First round is warm-up; only the second is printed
+            boolean print = round == 1;
+            measure(print, "register: RestAssured .as()", SMALL_ITERATIONS,
+                    () -> response.as(RegisterUserResponse.class));
+            measure(print, "register: ApiJson.read (cached)", SMALL_ITERATIONS,
+                    () -> ApiJson.read(small, RegisterUserResponse.class));
+            measure(print, "notes[100k]: readTree + iterate", LARGE_ITERATIONS, () -> {
+                try {
+                    long emails = 0;
+                    for (JsonNode note : treeMapper.readTree(large).get("data")) {
+                        emails += note.get("email").asText().isEmpty() ? 0 : 1;
+                    }
+                    return emails;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            measure(print, "notes[100k]: ApiJson.forEachElement", LARGE_ITERATIONS, () -> {
+                long[] emails = {0};
+                ApiJson.forEachElement(new ByteArrayInputStream(large), "data", RegisterUserResponse.Data.class,
+                        note -> emails[0] += note.getEmail().isEmpty() ? 0 : 1);
+                return emails[0];
+            });
+        }
+    }
+
+    private static void measure(boolean print, String name, int iterations, Supplier<Object> operation) {
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        if (print) {
+            System.out.printf("%-34s %12.2f %14d%n", name, nanos / 1000.0 / iterations, allocated / iterations);
+        }
+    }
+
+    private static byte[] largeArray() {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"data\":[");
+        for (int i = 0; i < LARGE_ELEMENTS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"").append(i).append("\",\"name\":\"user").append(i)
+                    .append("\",\"email\":\"user").append(i).append("@example.com\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
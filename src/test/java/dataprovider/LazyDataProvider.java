@@ -0,0 +1,206 @@
+package dataprovider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import utils.CloseableIterator;
+import utils.ConfigReader;
+import utils.ExcelUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy, shardable rows for TestNG data providers. Each source yields rows as
+ * {@code Object[]{Map<String, String>}} while the test runs, so the first case
+ * starts as soon as its row is read instead of after the whole dataset is built.
+ * A source is released when its last row is read; callers that stop early close
+ * the returned iterator.
+ * <p>
+ * A provider streaming from a file should not be {@code parallel = true}: TestNG
+ * reads every row of a parallel provider before starting the first test, which
+ * gives up both the early start and the flat memory.
+ * <p>
+ * With {@code -Dshard=i/n} (1-based, e.g. 2/3) only rows whose position modulo n
+ * is i-1 are returned, so n JVMs or CI agents given shards 1/n..n/n split one
+ * dataset deterministically without overlap.
+ */
+public class LazyDataProvider {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final int[] SHARD = parseShard(ConfigReader.get("shard"));
+
+    /**
+     * Rows from a JSON-lines file: one JSON object per line, values as text.
+     */
+    public static CloseableIterator<Object[]> jsonLines(Path file) {
+        BufferedReader reader = open(file);
+        return shard(new LineIterator<>(reader, file) {
+            @Override
+            Map<String, String> parse(String line) throws IOException {
+                Map<String, String> row = new LinkedHashMap<>();
+                JsonNode node = mapper.readTree(line);
+                node.fields().forEachRemaining(field -> row.put(field.getKey(), field.getValue().asText()));
+                return row;
+            }
+        });
+    }
+
+    /**
+     * Rows from an Excel sheet (null = first sheet), streamed by {@link ExcelUtils}.
+     */
+    public static CloseableIterator<Object[]> excel(Path file, String sheetName) {
+        return shard(ExcelUtils.readRows(file, sheetName));
+    }
+
+    /**
+     * Rows from maps already in memory (e.g. small hard-coded datasets), with sharding applied.
+     */
+    public static CloseableIterator<Object[]> rows(List<Map<String, String>> rows) {
+        return shard(CloseableIterator.of(rows.iterator()));
+    }
+
+    /**
+     * Path of a file under src/test/resources, e.g. "/testdata/registerUsers.jsonl".
+     */
+    public static Path resource(String name) {
+        URL url = LazyDataProvider.class.getResource(name);
+        if (url == null) {
+            throw new IllegalArgumentException("Test data resource not found: " + name);
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid test data resource: " + name, e);
+        }
+    }
+
+    private static CloseableIterator<Object[]> shard(CloseableIterator<Map<String, String>> rows) {
+        int index = SHARD[0];
+        int count = SHARD[1];
+        return new CloseableIterator<>() {
+            private long position;
+            private Map<String, String> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && rows.hasNext()) {
+                    Map<String, String> row = rows.next();
+                    if (position++ % count == index) {
+                        next = row;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = {next};
+                next = null;
+                return row;
+            }
+
+            @Override
+            public void close() {
+                rows.close();
+            }
+        };
+    }
+
+    /**
+     * "i/n" (1-based) to {i-1, n}; no shard means {0, 1}.
+     */
+    private static int[] parseShard(String shard) {
+        if (shard == null || shard.isBlank()) {
+            return new int[]{0, 1};
+        }
+        String[] parts = shard.trim().split("/");
+        try {
+            int index = Integer.parseInt(parts[0].trim());
+            int count = Integer.parseInt(parts[1].trim());
+            if (parts.length == 2 && count > 0 && index >= 1 && index <= count) {
+                return new int[]{index - 1, count};
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid shard '" + shard + "', expected i/n with 1 <= i <= n");
+    }
+
+    private static BufferedReader open(Path file) {
+        try {
+            return Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open test data " + file, e);
+        }
+    }
+
+    /**
+     * Reads one row per line, skipping blank lines and rows parse() returns null for; closes the file at the end.
+     */
+    private abstract static class LineIterator<T> implements CloseableIterator<T> {
+        private final BufferedReader reader;
+        private final Path file;
+        private T next;
+        private boolean done;
+
+        LineIterator(BufferedReader reader, Path file) {
+            this.reader = reader;
+            this.file = file;
+        }
+
+        abstract T parse(String line) throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null && !done) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        done = true;
+                        reader.close();
+                    } else if (!line.isBlank()) {
+                        next = parse(line);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read test data " + file, e);
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T row = next;
+            next = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            next = null;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not close test data " + file, e);
+            }
+        }
+    }
+}
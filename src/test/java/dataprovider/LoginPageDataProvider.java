@@ -2,6 +2,8 @@ package dataprovider;
 
 import org.testng.annotations.DataProvider;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,15 +17,29 @@ public class LoginPageDataProvider {
 
     /**
      * Provides test data for login functionality.
-     * Runs in parallel safely using immutable maps.
+     * Runs in parallel safely using immutable maps; honours -Dshard=i/n. The rows
+     * are already in memory, so TestNG reading them all up front for a parallel
+     * provider costs nothing.
      *
-     * @return Object[][] where each Object[] contains a Map<String, String> of user credentials.
+     * @return Iterator of Object[] each containing a Map<String, String> of user credentials.
      */
     @DataProvider(name = "loginUserData", parallel = true)
-    public static Object[][] loginTestData() {
-        return new Object[][]{
-                {Map.of(USER_NAME, "student",          PASSWORD, "Password123")},
-                {Map.of(USER_NAME, "student",  PASSWORD, "Password1234")}
-        };
+    public static Iterator<Object[]> loginTestData() {
+        return LazyDataProvider.rows(List.of(
+                Map.of(USER_NAME, "student",          PASSWORD, "Password123"),
+                Map.of(USER_NAME, "student",  PASSWORD, "Password1234")
+        ));
+    }
+
+    /**
+     * Same credentials streamed from testdata/loginData.xlsx (sheet "login").
+     * Rows are read lazily, so large sheets don't need to fit in memory. Not
+     * parallel: TestNG reads every row of a parallel provider before the first test.
+     *
+     * @return Iterator of Object[] each holding a Map<String, String> keyed by the header row.
+     */
+    @DataProvider(name = "loginUserDataFromExcel")
+    public static Iterator<Object[]> loginTestDataFromExcel() {
+        return LazyDataProvider.excel(LazyDataProvider.resource("/testdata/loginData.xlsx"), "login");
     }
 }
@@ -1,20 +1,20 @@
 package dataprovider.jsonTestData;
 
+import dataprovider.LazyDataProvider;
 import org.testng.annotations.DataProvider;
 
-import java.util.Map;
+import java.util.Iterator;
 
 public class UserDataProvider {
-    private static final String NAME = "name";
-    private static final String EMAIL = "email";
-    private static final String PASSWORD = "password";
 
-    @DataProvider(name = "registerUserData", parallel = true)
-    public static Object[][] registerUserData() {
-        return new Object[][]{
-                { Map.of(NAME, "soundhu22", EMAIL, "soundarya22@gmail.com", PASSWORD, "12345@") },
-                { Map.of(NAME, "soundhu33", EMAIL, "soundarya33@gmail.com", PASSWORD, "abcde@123") },
-                { Map.of(NAME, "soundhu44", EMAIL, "soundarya44@gmail.com", PASSWORD, "P@ssword1") }
-        };
+    /**
+     * Users to register, streamed from testdata/registerUsers.jsonl
+     * (keys: name, email, password); honours -Dshard=i/n. Not parallel, so the
+     * first row runs as soon as it is read; use api.execution.mode=fan-out to run
+     * rows concurrently.
+     */
+    @DataProvider(name = "registerUserData")
+    public static Iterator<Object[]> registerUserData() {
+        return LazyDataProvider.jsonLines(LazyDataProvider.resource("/testdata/registerUsers.jsonl"));
     }
 }
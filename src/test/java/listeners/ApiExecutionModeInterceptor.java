@@ -0,0 +1,27 @@
+package listeners;
+
+import base.ApiExecutor;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs only the API tests of the configured api.execution.mode. A test in group
+ * "per-row" or "fan-out" is dropped before the run when the other mode is
+ * active, so it neither runs nor shows up as skipped; tests in neither group
+ * are kept.
+ */
+public class ApiExecutionModeInterceptor implements IMethodInterceptor {
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        String otherMode = ApiExecutor.isFanOut() ? ApiExecutor.PER_ROW : ApiExecutor.FAN_OUT;
+        return methods.stream()
+                .filter(method -> !Arrays.asList(method.getMethod().getGroups()).contains(otherMode))
+                .collect(Collectors.toList());
+    }
+}
@@ -7,7 +7,6 @@ import org.testng.ITestListener;
 import org.testng.ITestResult;
 import utils.DriverFactory;
 import utils.ExtentTestManager;
-import utils.ReportManager;
 import utils.ScreenshotUtil;
 
 import java.io.IOException;
@@ -30,7 +29,9 @@ public class ExtentTestListener implements ITestListener {
         WebDriver driver = DriverFactory.getDriver(); // From your utility
         String screenshotPath = ScreenshotUtil.takeScreenshot(result.getMethod().getMethodName());
         ExtentTestManager.getTest().fail("Test Failed: " + result.getThrowable());
-        ExtentTestManager.getTest().addScreenCaptureFromPath(screenshotPath);
+        if (screenshotPath != null) { // Null when the screenshot was dropped under backpressure
+            ExtentTestManager.getTest().addScreenCaptureFromPath(screenshotPath);
+        }
 
         // 🔹 Log retry attempt if RetryAnalyzer is attached
         if (result.getMethod().getRetryAnalyzer(result) instanceof RetryAnalyzer) {
@@ -51,6 +52,6 @@ public class ExtentTestListener implements ITestListener {
 
     @Override
     public void onFinish(ITestContext context) {
-        ReportManager.getExtent().flush();
+        ExtentTestManager.requestFlush(); // Re-render in the background; skipped if nothing changed
     }
 }
@@ -0,0 +1,75 @@
+package load;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HDR-style latency histogram in microseconds: log-linear buckets with 1024
+ * linear sub-buckets per power of two, so every recorded value is kept to
+ * within 0.1% from 1µs up to about an hour, in fixed memory. Recording is
+ * lock-free and safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 10;
+    private static final int HALF_SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_MICROS = (1L << 32) - 1;
+    private static final int BUCKETS = 64 - Long.numberOfLeadingZeros(MAX_TRACKABLE_MICROS) - SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((BUCKETS + 1) * HALF_SUB_BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void recordNanos(long nanos) {
+        long micros = Math.min(Math.max(0, nanos / 1_000), MAX_TRACKABLE_MICROS);
+        counts.incrementAndGet(indexOf(micros));
+        total.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getMaxMicros() {
+        return max.get();
+    }
+
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Value at the given percentile (0-100), as the highest value equivalent to its bucket.
+     */
+    public long getPercentileMicros(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalent(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    private static int indexOf(long micros) {
+        int bucket = Math.max(0, 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS);
+        return (int) (bucket * HALF_SUB_BUCKETS + (micros >> bucket));
+    }
+
+    private static long highestEquivalent(int index) {
+        int bucket = Math.max(0, index / HALF_SUB_BUCKETS - 1);
+        long subBucket = index - (long) bucket * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << bucket) - 1;
+    }
+}
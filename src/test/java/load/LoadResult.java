@@ -0,0 +1,101 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one load run: latency percentiles, throughput and error rate.
+ */
+public class LoadResult {
+
+    private final String name;
+    private final String model;
+    private final String target;
+    private final long elapsedNanos;
+    private final LatencyHistogram histogram;
+    private final long errors;
+    private final long dropped;
+    private final List<String> errorSamples;
+
+    LoadResult(String name, String model, String target, long elapsedNanos, LatencyHistogram histogram,
+               long errors, long dropped, List<String> errorSamples) {
+        this.name = name;
+        this.model = model;
+        this.target = target;
+        this.elapsedNanos = elapsedNanos;
+        this.histogram = histogram;
+        this.errors = errors;
+        this.dropped = dropped;
+        this.errorSamples = errorSamples;
+    }
+
+    public long getRequests() {
+        return histogram.getCount();
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        return getRequests() == 0 ? 0 : (double) errors / getRequests();
+    }
+
+    public double getThroughput() {
+        return getRequests() / (elapsedNanos / 1e9);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public String summary() {
+        return String.format("%s [%s, %s]: %d requests in %.1fs, %.1f req/s, errors=%d (%.2f%%), dropped=%d, "
+                        + "latency ms p50=%.1f p95=%.1f p99=%.1f max=%.1f",
+                name, model, target, getRequests(), elapsedNanos / 1e9, getThroughput(), errors, getErrorRate() * 100,
+                dropped, millis(50), millis(95), millis(99), histogram.getMaxMicros() / 1000.0);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", millis(50));
+        latency.put("p95", millis(95));
+        latency.put("p99", millis(99));
+        latency.put("max", histogram.getMaxMicros() / 1000.0);
+        latency.put("mean", histogram.getMeanMicros() / 1000.0);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", name);
+        result.put("model", model);
+        result.put("target", target);
+        result.put("durationSeconds", elapsedNanos / 1e9);
+        result.put("requests", getRequests());
+        result.put("throughputPerSecond", getThroughput());
+        result.put("errors", errors);
+        result.put("errorRate", getErrorRate());
+        result.put("dropped", dropped);
+        result.put("latencyMillis", latency);
+        result.put("errorSamples", errorSamples);
+        return result;
+    }
+
+    /**
+     * Write the result as load-&lt;name&gt;.json into the given directory (next to the Extent report).
+     */
+    public Path writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("load-" + name + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toMap());
+        return file;
+    }
+
+    private double millis(double percentile) {
+        return histogram.getPercentileMicros(percentile) / 1000.0;
+    }
+}
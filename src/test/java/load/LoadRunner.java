@@ -0,0 +1,142 @@
+package load;
+
+import base.ApiExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a scenario (one request flow, e.g. register user) under load.
+ * <ul>
+ *   <li>Open model ({@link #runOpen}): arrivals are scheduled at a fixed rate
+ *   regardless of how fast the service answers, and latency is measured from
+ *   each arrival's intended start, so a slow service shows up as queueing
+ *   rather than as a lower request rate (no coordinated omission).</li>
+ *   <li>Closed model ({@link #runClosed}): a fixed number of workers run the
+ *   scenario back to back.</li>
+ * </ul>
+ */
+public class LoadRunner {
+
+    private static final int MAX_ERRORS_KEPT = 5;
+
+    /**
+     * One iteration of the load scenario; throwing marks it as an error.
+     */
+    public interface Scenario {
+        void run(long iteration) throws Exception;
+    }
+
+    private final String name;
+    private final Scenario scenario;
+    private final int maxInFlight;
+
+    public LoadRunner(String name, Scenario scenario, int maxInFlight) {
+        this.name = name;
+        this.scenario = scenario;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Start {@code rps} iterations per second for {@code duration}. Arrivals that
+     * would exceed maxInFlight outstanding iterations are dropped and counted.
+     */
+    public LoadResult runOpen(double rps, Duration duration) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        ExecutorService executor = ApiExecutor.newExecutor();
+        AtomicInteger inFlight = new AtomicInteger();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long iteration = 0;
+        try {
+            for (long intended = start; intended < end; intended = start + ++iteration * interval) {
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= maxInFlight) {
+                    recorder.dropped.increment();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                long scheduledAt = intended;
+                long current = iteration;
+                executor.execute(() -> {
+                    try {
+                        recorder.run(current, scheduledAt);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return recorder.result("open", rps + " rps", System.nanoTime() - start);
+    }
+
+    /**
+     * Run {@code concurrency} workers back to back for {@code duration}.
+     */
+    public LoadResult runClosed(int concurrency, Duration duration) throws InterruptedException {
+        Recorder recorder = new Recorder();
+        ExecutorService executor = ApiExecutor.newExecutor();
+        AtomicLong iterations = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try {
+            for (int worker = 0; worker < concurrency; worker++) {
+                executor.execute(() -> {
+                    try {
+                        while (System.nanoTime() < end) {
+                            recorder.run(iterations.getAndIncrement(), System.nanoTime());
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        } finally {
+            executor.shutdown();
+        }
+        return recorder.result("closed", concurrency + " workers", System.nanoTime() - start);
+    }
+
+    private class Recorder {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final List<String> errorSamples = Collections.synchronizedList(new ArrayList<>());
+
+        void run(long iteration, long startedAt) {
+            try {
+                scenario.run(iteration);
+            } catch (Throwable e) {
+                errors.increment();
+                if (errorSamples.size() < MAX_ERRORS_KEPT) {
+                    errorSamples.add(e.toString());
+                }
+            } finally {
+                histogram.recordNanos(System.nanoTime() - startedAt);
+            }
+        }
+
+        LoadResult result(String model, String target, long elapsedNanos) {
+            return new LoadResult(name, model, target, elapsedNanos, histogram, errors.sum(), dropped.sum(),
+                    new ArrayList<>(errorSamples));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package load;
+
+import apiPojo.ApiJson;
+import apiPojo.RegisterUserRequest;
+import apiPojo.RegisterUserResponse;
+import base.ApiClient;
+import base.ApiSession;
+import base.UserApi;
+import io.restassured.response.Response;
+import stub.StubServer;
+import utils.ConfigReader;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load scenario for the register-user flow of UserApiTest, using the same
+ * request template and session cache. By default it starts the in-process
+ * stub and points api.baseUrl at it; pass -Dload.stub=false to target the
+ * configured api.baseUrl instead. The result is printed and written to
+ * reports/load-register-user.json.
+ * <p>
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=load.RegisterUserLoad
+ * (-Dload.model=open|closed -Dload.rps=50 -Dload.concurrency=8 -Dload.durationSeconds=10)
+ */
+public class RegisterUserLoad {
+
+    public static void main(String[] args) throws Exception {
+        StubServer stub = null;
+        // Must happen before ApiClient builds its request spec from api.baseUrl
+        if (ConfigReader.getBoolean("load.stub", true)) {
+            stub = StubServer.start(0);
+            ConfigReader.override(stub.baseUrlOverrides());
+            System.out.println("Load target: stub at " + stub.getBaseUrl());
+        }
+        try {
+            String runId = Long.toString(System.currentTimeMillis(), 36);
+            // Warm-up and measured iterations both count from 0, so number users from one sequence
+            AtomicLong users = new AtomicLong();
+            LoadRunner runner = new LoadRunner("register-user", iteration -> registerUser(runId, users.incrementAndGet()),
+                    ConfigReader.getInt("load.maxInFlight", 200));
+            Duration duration = ConfigReader.getDuration("load.durationSeconds", ChronoUnit.SECONDS, Duration.ofSeconds(10));
+            Duration warmUp = ConfigReader.getDuration("load.warmupSeconds", ChronoUnit.SECONDS, Duration.ofSeconds(3));
+            if (!warmUp.isZero()) {
+                // Rest Assured's first calls are slow; keep them out of the measured run
+                runner.runClosed(ConfigReader.getInt("load.concurrency", 8), warmUp);
+            }
+            LoadResult result = ConfigReader.get("load.model", "open").equalsIgnoreCase("closed")
+                    ? runner.runClosed(ConfigReader.getInt("load.concurrency", 8), duration)
+                    : runner.runOpen(ConfigReader.getDouble("load.rps", 20), duration);
+
+            System.out.println(result.summary());
+            System.out.println(ApiClient.poolSummary());
+            Path report = result.writeTo(Paths.get(System.getProperty("user.dir"), "reports"));
+            System.out.println("Load report: " + report);
+        } finally {
+            if (stub != null) {
+                stub.stop();
+            }
+        }
+    }
+
+    private static void registerUser(String runId, long user) {
+        RegisterUserRequest request = new RegisterUserRequest();
+        request.setName("load" + user);
+        request.setEmail("load-" + runId + "-" + user + "@example.com");
+        request.setPassword("P@ssword" + user);
+
+        Response response = ApiSession.execute(cookies -> UserApi.registerRequest(cookies, request)
+                .post(UserApi.REGISTER_PATH));
+        if (response.getStatusCode() != 201) {
+            throw new AssertionError("Expected 201 but got " + response.getStatusCode());
+        }
+        RegisterUserResponse body = ApiJson.read(response.asByteArray(), RegisterUserResponse.class);
+        if (!body.isSuccess() || !request.getEmail().equals(body.getData().getEmail())) {
+            throw new AssertionError("Unexpected register response: " + body.getMessage());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package stub;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process HTTP stub of the practice sites on an ephemeral loopback port, so
+ * API, web and load runs can be verified without the internet. It serves the
+ * register-user API and static copies of the login, upload and download pages
+ * (src/test/resources/stub) with the locators the page objects use.
+ * {@link #baseUrlOverrides()} maps the config base URLs onto it. Every response
+ * has an explicit body length so pooled keep-alive connections are reused.
+ */
+public class StubServer {
+
+    private static final String SESSION_COOKIE = "stub-session";
+    private static final String LOGIN_PATH = "/practice-test-login/";
+    private static final String UPLOAD_PATH = "/upload";
+    private static final String DOWNLOAD_PAGE_PATH = "/samples/document/csv/";
+    private static final String CSV_NAME = "csv_sample_file_1MB.csv";
+    private static final int CSV_ROWS = 17_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder requests = new LongAdder();
+    // Filled before the server starts, read-only afterwards
+    private final Map<String, String> pages = new HashMap<>();
+    private final byte[] csv = sampleCsv();
+
+    private StubServer(HttpServer server, int threads) {
+        this.server = server;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "stub-server-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::home);
+        server.createContext("/notes/api/users/register", this::register);
+        page(LOGIN_PATH, "login.html");
+        page("/logged-in-successfully/", "logged-in.html");
+        page(DOWNLOAD_PAGE_PATH, "download.html");
+        pages.put(UPLOAD_PATH, readPage("upload.html"));
+        pages.put("uploaded", readPage("uploaded.html"));
+        server.createContext(UPLOAD_PATH, this::upload);
+        server.createContext("/download/" + CSV_NAME, this::downloadCsv);
+    }
+
+    /**
+     * Start on the given port (0 = any free port).
+     */
+    public static StubServer start(int port) throws IOException {
+        // Headers and body go out in separate writes; without TCP_NODELAY every
+        // response waits on the client's delayed ACK (~40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        StubServer stub = new StubServer(http, 16);
+        http.start();
+        return stub;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Config overrides that point api.baseUrl and the web.baseUrl pages at this stub.
+     */
+    public Map<String, String> baseUrlOverrides() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("api.baseUrl", getBaseUrl());
+        overrides.put("web.baseUrl", getBaseUrl() + LOGIN_PATH);
+        overrides.put("web.baseUrl.uploadFile", getBaseUrl() + UPLOAD_PATH);
+        overrides.put("web.baseUrl.downloadFile", getBaseUrl() + DOWNLOAD_PAGE_PATH);
+        return overrides;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void home(HttpExchange exchange) throws IOException {
+        requests.increment();
+        if (!exchange.getRequestURI().getPath().equals("/")) {
+            send(exchange, 404, "text/plain", "Not found");
+            return;
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + UUID.randomUUID() + "; Path=/");
+        send(exchange, 200, "text/html", "<html><body><h1>Stub</h1></body></html>");
+    }
+
+    private void page(String path, String resource) {
+        pages.put(path, readPage(resource));
+        server.createContext(path, exchange -> {
+            requests.increment();
+            send(exchange, 200, "text/html; charset=utf-8", pages.get(path));
+        });
+    }
+
+    private void upload(HttpExchange exchange) throws IOException {
+        requests.increment();
+        if (exchange.getRequestMethod().equals("POST")) {
+            // Multipart body is not inspected, only drained so the connection can be reused
+            exchange.getRequestBody().readAllBytes();
+            send(exchange, 200, "text/html; charset=utf-8", pages.get("uploaded"));
+            return;
+        }
+        send(exchange, 200, "text/html; charset=utf-8", pages.get(UPLOAD_PATH));
+    }
+
+    private void downloadCsv(HttpExchange exchange) throws IOException {
+        requests.increment();
+        exchange.getResponseHeaders().set("Content-Type", "text/csv");
+        exchange.getResponseHeaders().set("Content-Disposition", "attachment; filename=\"" + CSV_NAME + "\"");
+        exchange.sendResponseHeaders(200, csv.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(csv);
+        }
+    }
+
+    /**
+     * Roughly 1 MB of deterministic CSV, like the sample file on the live site.
+     */
+    private static byte[] sampleCsv() {
+        StringBuilder rows = new StringBuilder("id,first_name,last_name,email,city,amount\n");
+        for (int i = 1; i <= CSV_ROWS; i++) {
+            rows.append(i).append(",First").append(i).append(",Last").append(i)
+                    .append(",user").append(i).append("@example.com,City").append(i % 97)
+                    .append(',').append(i * 37 % 10_000).append(".").append(i % 100).append("\n");
+        }
+        return rows.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readPage(String resource) {
+        try (InputStream in = StubServer.class.getResourceAsStream("/stub/" + resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Stub page not found: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stub page " + resource, e);
+        }
+    }
+
+    private void register(HttpExchange exchange) throws IOException {
+        requests.increment();
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "text/plain", "Method not allowed");
+            return;
+        }
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie == null || !cookie.contains(SESSION_COOKIE + "=")) {
+            sendJson(exchange, 401, result(false, 401, "No session", null));
+            return;
+        }
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (form.getOrDefault("name", "").isEmpty() || form.getOrDefault("email", "").isEmpty()
+                || form.getOrDefault("password", "").isEmpty()) {
+            sendJson(exchange, 400, result(false, 400, "Name, email and password are required", null));
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("id", UUID.randomUUID().toString().replace("-", "").substring(0, 24));
+        data.put("name", form.get("name"));
+        data.put("email", form.get("email"));
+        sendJson(exchange, 201, result(true, 201, "User account created successfully", data));
+    }
+
+    private static Map<String, Object> result(boolean success, int status, String message, Map<String, Object> data) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", success);
+        body.put("status", status);
+        body.put("message", message);
+        if (data != null) {
+            body.put("data", data);
+        }
+        return body;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8", mapper.writeValueAsString(body));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -10,8 +10,11 @@ import org.openqa.selenium.WebDriver;
 import org.testng.annotations.Test;
 import pages.LoginPage;
 import utils.ConfigReader;
+import utils.DownloadTracker;
 import utils.ExtentTestManager;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 
 public class LoginTest extends BaseTest {
@@ -23,8 +26,8 @@ public class LoginTest extends BaseTest {
         System.out.println("Thread ID: " + Thread.currentThread().getId() +
                 " - Driver Hash: " + driver.hashCode() +
                 " - Testing user: " + userData.get("username"));
-        driver.get(ConfigReader.get("web.baseUrl"));
-        LoginPage loginPage = new LoginPage(driver);
+        LoginPage loginPage = new LoginPage(driver).open();
+        Assert.assertTrue(loginPage.isLoginFormReady(), "Login form is not visible and enabled");
         ExtentTestManager.getTest().info("Navigating to login page");
         String user = userData.get("username");
         String pass = userData.get("password");
@@ -32,14 +35,20 @@ public class LoginTest extends BaseTest {
         // Simple assertion for success message (if needed)
          Assert.assertEquals(loginPage.getLoggingSuccessMessage(), "Logged In Successfully");
     }
+
+    @Test(dataProvider = "loginUserDataFromExcel", dataProviderClass = LoginPageDataProvider.class)
+    public void testLoginFromExcel(Map<String, String> userData) {
+        // Same login flow with rows streamed from testdata/loginData.xlsx
+        testLogin(userData);
+    }
     ////a[@type='button' and @href='/upload' and contains(@class, 'btn-outline-primary')]
 
     @Test
     public void uploadFile() {
         // Always access WebDriver through DriverFactory
         WebDriver driver = DriverFactory.getDriver();
-        driver.get(ConfigReader.get("web.baseUrl.uploadFile"));
-        UploadFilePage uploadFilePage = new UploadFilePage(driver);
+        UploadFilePage uploadFilePage = new UploadFilePage(driver).open();
+        Assert.assertTrue(uploadFilePage.isUploadFormReady(), "Upload form is not ready");
         ExtentTestManager.getTest().info("Navigating to upload file page");
         String relativeFilePath = "src/test/resources/testdata/dve.png";
         String attributeToWait = "data-gtm-form-interact-field-id";
@@ -49,15 +58,18 @@ public class LoginTest extends BaseTest {
     }
 
     @Test
-    public void downloadFile() throws InterruptedException {
+    public void downloadFile() {
         // Always access WebDriver through DriverFactory
         WebDriver driver = DriverFactory.getDriver();
-        driver.get(ConfigReader.get("web.baseUrl.downloadFile"));
-        DownloadFilePage downloadFilePage = new DownloadFilePage(driver);
-        downloadFilePage.clickOnDownloadFileBtn();
-        Thread.sleep(100000);
+        DownloadFilePage downloadFilePage = new DownloadFilePage(driver).open();
+        // Watch before clicking so the new file can't be missed
+        try (DownloadTracker tracker = DownloadTracker.watch(DriverFactory.getDownloadDirectory(), "*.csv")) {
+            downloadFilePage.clickOnDownloadFileBtn();
+            Path downloadedFile = tracker.awaitCompletion(Duration.ofSeconds(ConfigReader.getInt("web.download.timeout", 100)));
+            DownloadTracker.assertSize(downloadedFile, 1, 2 * 1024 * 1024);
+            System.out.println("Downloaded " + downloadedFile.getFileName() + " sha256="
+                    + DownloadTracker.checksum(downloadedFile, "SHA-256"));
+        }
 //        ExtentTestManager.getTest().info("Clicked on download button");
-
-
     }
 }